@@ -0,0 +1,90 @@
+package com.techup.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * เทียบผล JMH (-rf json) สองรอบ: baseline กับรอบปัจจุบัน แยกตาม benchmark + @Param
+ * นับเป็น regression เมื่อแย่ลงเกิน threshold (%) และต่างกันเกิน error ของทั้งสองรอบรวมกัน
+ * thrpt ยิ่งมากยิ่งดี, โหมดอื่น (avgt, sample, ss) ยิ่งน้อยยิ่งดี
+ * จบด้วย exit code 1 ถ้ามี regression เพื่อใช้ใน CI ได้
+ *
+ * ./mvnw -Pbenchmark test-compile exec:exec@jmh-compare -Djmh.baseline=jmh-baseline.json
+ */
+public final class JmhResultComparison {
+
+    private record Score(String mode, double score, double error, String unit) {
+    }
+
+    private JmhResultComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: JmhResultComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, Score> baseline = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null || !before.mode().equals(now.mode()) || !before.unit().equals(now.unit())) {
+                System.out.printf("  new        %s: %.3f %s%n", entry.getKey(), now.score(), now.unit());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score() * 100;
+            double worse = "thrpt".equals(now.mode()) ? -change : change;
+            boolean beyondNoise = Math.abs(now.score() - before.score()) > before.error() + now.error();
+            String verdict = worse > threshold && beyondNoise ? "REGRESSION"
+                : worse < -threshold && beyondNoise ? "improved" : "same";
+            if ("REGRESSION".equals(verdict)) {
+                regressions++;
+            }
+            System.out.printf("  %-10s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                verdict, entry.getKey(), before.score(), now.score(), now.unit(), change);
+        }
+        for (String missing : baseline.keySet()) {
+            if (!current.containsKey(missing)) {
+                System.out.printf("  missing    %s%n", missing);
+            }
+        }
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key(run), new Score(run.get("mode").asText(), metric.get("score").asDouble(),
+                Double.isNaN(error) ? 0 : error, metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    // ชื่อ benchmark (ตัด package) + param เรียงตามชื่อ เช่น TripServiceBenchmark.convertToResponse{trips=20}
+    private static String key(JsonNode run) {
+        String benchmark = run.get("benchmark").asText().replace("com.techup.benchmark.", "");
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = run.path("params").fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            params.put(field.getKey(), field.getValue().asText());
+        }
+        return params.isEmpty() ? benchmark : benchmark + params;
+    }
+}
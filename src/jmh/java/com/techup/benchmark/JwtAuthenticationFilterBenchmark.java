@@ -0,0 +1,116 @@
+package com.techup.benchmark;
+
+import com.techup.security.JwtAuthenticationCache;
+import com.techup.security.JwtAuthenticationFilter;
+import com.techup.security.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * request/sec ที่ผ่าน JwtAuthenticationFilter (รวม metric ของ filter) แยกตามเส้นทาง:
+ * token ที่อยู่ใน JwtAuthenticationCache แล้ว, token ใหม่ทุกครั้ง (verify ลายเซ็น + โหลด user),
+ * GET สาธารณะที่ข้ามการตรวจ และ request ที่ไม่มี token
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private JwtAuthenticationFilter uncachedFilter;
+    private MockHttpServletRequest authenticatedRequest;
+    private MockHttpServletRequest publicRequest;
+    private MockHttpServletRequest anonymousRequest;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+    // เก็บ Authentication ที่ filter ใส่ไว้ให้ JMH consume กัน dead-code elimination
+    private Authentication lastAuthentication;
+    private final FilterChain chain = (request, response) ->
+        lastAuthentication = SecurityContextHolder.getContext().getAuthentication();
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", "benchmark-secret-0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwtService, "keyId", "default");
+        ReflectionTestUtils.setField(jwtService, "verificationKeys", "");
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+        filter = filter(10_000);
+        // max-size 0: ทุก request ต้อง verify และโหลด user ใหม่ (เหมือน cache miss)
+        uncachedFilter = filter(0);
+
+        authenticatedRequest = new MockHttpServletRequest("POST", "/api/trips");
+        authenticatedRequest.setServletPath("/api/trips");
+        authenticatedRequest.addHeader("Authorization", "Bearer " + jwtService.generateToken(42L, EMAIL));
+        publicRequest = new MockHttpServletRequest("GET", "/api/trips/7");
+        publicRequest.setServletPath("/api/trips/7");
+        anonymousRequest = new MockHttpServletRequest("GET", "/api/me");
+        anonymousRequest.setServletPath("/api/me");
+    }
+
+    @Benchmark
+    public Authentication cachedToken() throws ServletException, IOException {
+        return run(filter, authenticatedRequest);
+    }
+
+    @Benchmark
+    public Authentication uncachedToken() throws ServletException, IOException {
+        return run(uncachedFilter, authenticatedRequest);
+    }
+
+    @Benchmark
+    public Authentication publicGet() throws ServletException, IOException {
+        return run(filter, publicRequest);
+    }
+
+    @Benchmark
+    public Authentication noToken() throws ServletException, IOException {
+        return run(filter, anonymousRequest);
+    }
+
+    // OncePerRequestFilter ลบ attribute "already filtered" ให้เองตอนจบ จึงใช้ request เดิมซ้ำได้
+    private Authentication run(JwtAuthenticationFilter target, MockHttpServletRequest request)
+            throws ServletException, IOException {
+        try {
+            target.doFilter(request, response, chain);
+            return lastAuthentication;
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private JwtAuthenticationFilter filter(long cacheSize) {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(jwtService,
+            username -> User.withUsername(username).password("hash").authorities("USER").build(),
+            cacheSize, Duration.ofMinutes(5));
+        return new JwtAuthenticationFilter(cache, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,119 @@
+package com.techup.benchmark;
+
+import com.techup.service.MultipartFileRequestBody;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * จำนวน byte ที่ allocate ต่อการส่ง 1 ไฟล์ ดูจาก gc.alloc.rate.norm:
+ *   ./mvnw -Pbenchmark test-compile exec:exec -Djmh.args="MultipartUpload -prof gc"
+ * แบบเดิม (getBytes) โตตามขนาดไฟล์ ส่วนแบบ stream ควรคงที่ไม่ว่าไฟล์จะใหญ่แค่ไหน
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+public class MultipartUploadAllocationBenchmark {
+
+    private static final MediaType JPEG = MediaType.parse("image/jpeg");
+
+    @Param({"1048576", "4194304", "10485760"})
+    public int fileSize;
+
+    private Path tempFile;
+    private MultipartFile file;
+    private BufferedSink sink;
+
+    @Setup
+    public void setUp() throws IOException {
+        // multipart ของ Tomcat (file-size-threshold=0) เก็บไฟล์ไว้ใน temp file แบบนี้
+        tempFile = Files.createTempFile("upload", ".jpg");
+        Files.write(tempFile, new byte[fileSize]);
+        file = new TempFileMultipartFile(tempFile);
+        sink = Okio.buffer(Okio.blackhole());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Benchmark
+    public void byteArrayBody() throws IOException {
+        RequestBody.create(file.getBytes(), JPEG).writeTo(sink);
+        sink.flush();
+    }
+
+    @Benchmark
+    public void streamingBody() throws IOException {
+        new MultipartFileRequestBody(file).writeTo(sink);
+        sink.flush();
+    }
+
+    private record TempFileMultipartFile(Path path) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "photos";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return path.getFileName().toString();
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return path.toFile().length();
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            return Files.readAllBytes(path);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(path);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.copy(path, dest.toPath());
+        }
+    }
+}
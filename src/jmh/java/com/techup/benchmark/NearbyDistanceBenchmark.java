@@ -0,0 +1,97 @@
+package com.techup.benchmark;
+
+import com.techup.geo.GeoBoundingBox;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findNearby คำนวณระยะใน SQL (TripRepository.DISTANCE_KM) ไม่ได้คำนวณฝั่ง Java
+ * benchmark นี้จำลองงานของ query ใน Java ด้วยสูตรเดียวกัน (GeoBoundingBox.distanceKm, spherical law of cosines)
+ * เพื่อเทียบต้นทุนของการคำนวณระยะกับทุกจุด กับการกรองด้วย bounding box ก่อนแล้วค่อยคำนวณระยะ
+ * (แบบที่ query ใช้ index) ไม่ได้วัดเวลาของ findNearby เอง
+ * จุดกระจายทั่วประเทศไทย ค้นรอบเชียงใหม่ตามรัศมีที่กำหนด
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NearbyDistanceBenchmark {
+
+    private static final double CENTER_LAT = 18.79;
+    private static final double CENTER_LNG = 98.98;
+
+    @Param({"10000"})
+    public int points;
+
+    @Param({"10", "100"})
+    public double radiusKm;
+
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        latitudes = new double[points];
+        longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            latitudes[i] = random.nextDouble(5.6, 20.5);
+            longitudes[i] = random.nextDouble(97.3, 105.7);
+        }
+    }
+
+    @Benchmark
+    public int boundingBox() {
+        GeoBoundingBox box = GeoBoundingBox.around(CENTER_LAT, CENTER_LNG, radiusKm);
+        int matches = 0;
+        for (int i = 0; i < points; i++) {
+            if (inBox(box, i)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int distanceOnly() {
+        int matches = 0;
+        for (int i = 0; i < points; i++) {
+            if (GeoBoundingBox.distanceKm(CENTER_LAT, CENTER_LNG, latitudes[i], longitudes[i]) <= radiusKm) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public int boundingBoxThenDistance() {
+        GeoBoundingBox box = GeoBoundingBox.around(CENTER_LAT, CENTER_LNG, radiusKm);
+        int matches = 0;
+        for (int i = 0; i < points; i++) {
+            if (inBox(box, i)
+                && GeoBoundingBox.distanceKm(CENTER_LAT, CENTER_LNG, latitudes[i], longitudes[i]) <= radiusKm) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private boolean inBox(GeoBoundingBox box, int i) {
+        return latitudes[i] >= box.minLat() && latitudes[i] <= box.maxLat()
+            && longitudes[i] >= box.minLng() && longitudes[i] <= box.maxLng();
+    }
+}
@@ -0,0 +1,136 @@
+package com.techup.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import com.techup.image.ImageProcessor;
+import com.techup.image.ImageVariant;
+import com.techup.image.ProcessedImage;
+import com.techup.service.SupabaseStorageService;
+import com.techup.service.TripPhotoUploader;
+import com.techup.service.UploadedPhoto;
+import okhttp3.OkHttpClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * เวลาอัพโหลดรูป 1 ชุด (สูงสุด 5 รูปต่อทริป) ไปยัง stub storage บน localhost
+ * ที่หน่วงเวลาตอบกลับเพื่อจำลอง latency ของ Supabase: ทีละไฟล์ (แบบเดิม) เทียบกับพร้อมกัน
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PhotoUploadBenchmark {
+
+    @Param({"5"})
+    public int photoCount;
+
+    @Param({"1048576"})
+    public int photoBytes;
+
+    @Param({"50"})
+    public int storageLatencyMs;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService storageExecutor;
+    private ExecutorService imageExecutor;
+    private SupabaseStorageService storageService;
+    private TripPhotoUploader uploader;
+    private List<MultipartFile> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/storage/v1/object/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                body.transferTo(OutputStream.nullOutputStream());
+                Thread.sleep(storageLatencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] response = "{\"Key\":\"ok\"}".getBytes();
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.setExecutor(serverExecutor);
+        server.start();
+
+        storageService = new SupabaseStorageService(new OkHttpClient());
+        ReflectionTestUtils.setField(storageService, "supabaseUrl",
+            "http://127.0.0.1:" + server.getAddress().getPort());
+        ReflectionTestUtils.setField(storageService, "supabaseKey", "benchmark");
+        ReflectionTestUtils.setField(storageService, "bucketName", "trips");
+
+        storageExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        // stub ตอบสำเร็จเสมอ จึงไม่มีไฟล์เข้าคิวลบ
+        imageExecutor = Executors.newSingleThreadExecutor();
+        // วัดเฉพาะเวลาอัพโหลด: ข้ามการย่อรูป ส่งไฟล์เดิมเป็นขนาด full ขนาดเดียว
+        ImageProcessor passThrough = new ImageProcessor(imageExecutor, 40_000_000L) {
+            @Override
+            public boolean canProcess(String contentType) {
+                return true;
+            }
+
+            @Override
+            public ProcessedImage process(MultipartFile file) throws IOException {
+                return new ProcessedImage(Map.of(ImageVariant.FULL.name(), file.getBytes()));
+            }
+        };
+        uploader = new TripPhotoUploader(storageService, null, passThrough, storageExecutor);
+
+        files = new ArrayList<>();
+        for (int i = 0; i < photoCount; i++) {
+            files.add(new MockMultipartFile("photos", "photo" + i + ".jpg", "image/jpeg", new byte[photoBytes]));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.close();
+        storageExecutor.close();
+        imageExecutor.shutdown();
+    }
+
+    @Benchmark
+    public List<String> sequentialUpload() throws IOException {
+        List<String> urls = new ArrayList<>();
+        for (MultipartFile file : files) {
+            urls.add(storageService.uploadFile(file, 1L));
+        }
+        return urls;
+    }
+
+    @Benchmark
+    public List<UploadedPhoto> parallelUpload() throws IOException {
+        return uploader.uploadAll(1L, files);
+    }
+}
@@ -0,0 +1,124 @@
+package com.techup.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.techup.dto.TripPageResponse;
+import com.techup.dto.TripResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ขนาดและเวลา serialize ของหน้า feed (20 ทริป x 5 รูป x 2 ขนาดย่อ)
+ * เทียบ JSON / Smile / CBOR กับ photos แบบ URL เต็ม (absolute) และ key (relative)
+ * ขนาด byte (ดิบ / gzip) พิมพ์ตอน setup ของแต่ละชุด param
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripPayloadBenchmark {
+
+    private static final String PUBLIC_BASE_URL =
+        "https://abcdefghijklmnopqrst.supabase.co/storage/v1/object/public/trip-photos/";
+    private static final int TRIPS_PER_PAGE = 20;
+    private static final int PHOTOS_PER_TRIP = 5;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"absolute", "relative"})
+    public String photos;
+
+    private ObjectMapper mapper;
+    private TripPageResponse page;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = switch (format) {
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            default -> builder.build();
+        };
+        page = page("absolute".equals(photos) ? PUBLIC_BASE_URL : "");
+
+        byte[] raw = mapper.writeValueAsBytes(page);
+        System.out.printf("%n[payload] format=%s photos=%s raw=%d bytes gzip=%d bytes%n",
+            format, photos, raw.length, gzip(raw).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    // เวลาที่ใช้จริงเมื่อ server.compression บีบอัด response
+    @Benchmark
+    public byte[] serializeAndGzip() throws IOException {
+        return gzip(mapper.writeValueAsBytes(page));
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+
+    private static TripPageResponse page(String photoPrefix) {
+        OffsetDateTime now = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 678_000_000, ZoneOffset.UTC);
+        List<TripResponse> trips = new ArrayList<>(TRIPS_PER_PAGE);
+        for (int i = 0; i < TRIPS_PER_PAGE; i++) {
+            long id = 1000L + i;
+            String[] photoKeys = new String[PHOTOS_PER_TRIP];
+            Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+            for (int p = 0; p < PHOTOS_PER_TRIP; p++) {
+                String base = photoPrefix + "trips/" + id + "/" + UUID.randomUUID();
+                photoKeys[p] = base + ".jpg";
+                variants.put(photoKeys[p], Map.of("medium", base + "_medium.jpg", "thumb", base + "_thumb.jpg"));
+            }
+            trips.add(TripResponse.builder()
+                .id(id)
+                .title("เที่ยวเชียงใหม่ ทะเลหมอกดอยอินทนนท์ " + i)
+                .description("ขับรถขึ้นดอยตอนเช้ามืด แวะกาแฟริมทาง แล้วเดินป่าระยะสั้นไปน้ำตก " + i)
+                .photos(photoKeys)
+                .photoVariants(variants)
+                .tags(new String[]{"north", "mountain", "coffee"})
+                .latitude(18.79 + i * 0.01)
+                .longitude(98.98)
+                .authorId(10L + i % 5)
+                .createdAt(now.minusHours(i))
+                .updatedAt(now.minusHours(i))
+                .build());
+        }
+        return TripPageResponse.builder().items(trips).nextCursor("MjAyNS0wMS0wMlQwMzowNDowNS42Nzh8MTAxOQ").hasMore(true).build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.techup.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techup.dto.TripResponse;
+import com.techup.entity.Trip;
+import com.techup.entity.User;
+import com.techup.service.TripPhotoValidator;
+import com.techup.service.TripResponseMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * งานฝั่ง CPU ของ TripService ที่ไม่แตะฐานข้อมูล:
+ * TripResponseMapper.toResponse ของหนึ่งหน้า (entity -> TripResponse), แปลงแล้ว serialize เป็น JSON
+ * ด้วย ObjectMapper แบบเดียวกับ Spring Boot และ TripPhotoValidator.validate ทั้งไฟล์ที่ผ่านและไฟล์ที่ถูกปฏิเสธ
+ * (สร้าง exception) ทั้งสองเป็น static helper ที่ TripService เรียก จึงวัดได้โดยไม่ต้องสร้าง service
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TripServiceBenchmark {
+
+    private static final int PHOTOS_PER_TRIP = 5;
+
+    @Param({"20", "100"})
+    public int trips;
+
+    private ObjectMapper mapper;
+    private List<Trip> entities;
+    private MultipartFile acceptedFile;
+    private MultipartFile rejectedFile;
+
+    @Setup
+    public void setUp() {
+        mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        entities = entities(trips);
+        acceptedFile = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[1024]);
+        rejectedFile = new MockMultipartFile("files", "a.gif", "image/gif", new byte[1024]);
+    }
+
+    @Benchmark
+    public List<TripResponse> convertToResponse() {
+        List<TripResponse> responses = new ArrayList<>(entities.size());
+        for (Trip trip : entities) {
+            responses.add(TripResponseMapper.toResponse(trip));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public byte[] convertAndSerialize() throws Exception {
+        return mapper.writeValueAsBytes(convertToResponse());
+    }
+
+    @Benchmark
+    public MultipartFile validateAcceptedFile() {
+        TripPhotoValidator.validate(acceptedFile);
+        return acceptedFile;
+    }
+
+    @Benchmark
+    public Object validateRejectedFile() {
+        try {
+            TripPhotoValidator.validate(rejectedFile);
+            throw new IllegalStateException("gif ต้องถูกปฏิเสธ");
+        } catch (IllegalArgumentException expected) {
+            return expected;
+        }
+    }
+
+    private static List<Trip> entities(int count) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678_000_000);
+        List<Trip> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long id = 1000L + i;
+            String[] photos = new String[PHOTOS_PER_TRIP];
+            Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+            for (int p = 0; p < PHOTOS_PER_TRIP; p++) {
+                String base = "trips/" + id + "/photo-" + p;
+                photos[p] = base + ".jpg";
+                variants.put(photos[p], Map.of("medium", base + "_medium.jpg", "thumb", base + "_thumb.jpg"));
+            }
+            User author = new User();
+            author.setId(10L + i % 5);
+            result.add(Trip.builder()
+                .id(id)
+                .title("เที่ยวเชียงใหม่ ทะเลหมอกดอยอินทนนท์ " + i)
+                .description("ขับรถขึ้นดอยตอนเช้ามืด แวะกาแฟริมทาง แล้วเดินป่าระยะสั้นไปน้ำตก " + i)
+                .photos(photos)
+                .photoVariants(variants)
+                .tags(new String[]{"north", "mountain", "coffee"})
+                .latitude(18.79 + i * 0.01)
+                .longitude(98.98)
+                .author(author)
+                .createdAt(now.minusHours(i))
+                .updatedAt(now.minusHours(i))
+                .build());
+        }
+        return result;
+    }
+}
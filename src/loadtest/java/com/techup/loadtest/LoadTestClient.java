@@ -0,0 +1,72 @@
+package com.techup.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP client ของ load test (java.net.http บน virtual thread) กับ helper ของ API ที่ใช้ตอน seed/เตรียมข้อมูล
+ * request ที่ถูกจับเวลาอยู่ใน TripLoadTest ส่วนนี้โยน IllegalStateException เมื่อ API ตอบไม่สำเร็จ
+ */
+public class LoadTestClient {
+
+    private final HttpClient client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public LoadTestClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    public HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60));
+    }
+
+    public HttpRequest.Builder authorized(String token, String path) {
+        return request(path).header("Authorization", "Bearer " + token);
+    }
+
+    public HttpRequest.Builder json(HttpRequest.Builder builder, String method, Object body) throws IOException {
+        return builder.header("Content-Type", "application/json")
+            .method(method, HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+    }
+
+    public int send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public HttpResponse<byte[]> sendForBody(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    public JsonNode readTree(byte[] body) throws IOException {
+        return mapper.readTree(body);
+    }
+
+    // body ของ response 2xx เป็น JSON, status อื่นโยน IllegalStateException พร้อม body
+    public JsonNode expectJson(HttpRequest request, String action) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = sendForBody(request);
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(action + " failed (" + response.statusCode() + "): "
+                + new String(response.body()));
+        }
+        return mapper.readTree(response.body());
+    }
+
+    public String login(String email, String password) throws IOException, InterruptedException {
+        record Login(String email, String password) {
+        }
+        return expectJson(json(request("/api/users/login"), "POST", new Login(email, password)).build(), "login")
+            .get("token").asText();
+    }
+}
@@ -0,0 +1,82 @@
+package com.techup.loadtest;
+
+import com.techup.ServerApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * สภาพแวดล้อมของ load test ที่สร้างใหม่ทุกรอบ (--embedded=true):
+ * PostgreSQL ใน Testcontainers (ต้องมี Docker), StubStorageServer แทน Supabase Storage
+ * และแอปจริง (ServerApplication) ใน JVM เดียวกันบน port สุ่ม ทุกอย่างถูกทิ้งเมื่อ close
+ *
+ * load generator ใช้ CPU เครื่องเดียวกับแอป ตัวเลขจึงเหมาะเทียบระหว่างรอบ/ค่า config
+ * มากกว่าใช้เป็น capacity จริงของเครื่อง production
+ */
+public class LoadTestEnvironment implements AutoCloseable {
+
+    static final String BUCKET = "trips";
+
+    private final PostgreSQLContainer<?> postgres;
+    private final StubStorageServer storage;
+    private final ConfigurableApplicationContext application;
+
+    // appProperties: ค่าที่ส่งต่อให้แอป (จาก --app.<property>=<value>) ทับค่าของ harness ได้
+    public LoadTestEnvironment(String postgresImage, Duration storageLatency, Map<String, String> appProperties)
+            throws IOException {
+        postgres = new PostgreSQLContainer<>(postgresImage);
+        postgres.start();
+        storage = new StubStorageServer(storageLatency);
+
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("server.address", "127.0.0.1");
+        properties.put("spring.datasource.url", postgres.getJdbcUrl());
+        properties.put("spring.datasource.username", postgres.getUsername());
+        properties.put("spring.datasource.password", postgres.getPassword());
+        properties.put("supabase.url", storage.url());
+        properties.put("supabase.bucket", BUCKET);
+        properties.put("supabase.Key", "loadtest");
+        properties.put("spring.flyway.placeholders.storage_bucket", BUCKET);
+        properties.put("jwt.secret", UUID.randomUUID() + "-" + UUID.randomUUID());
+        // log ทุก SQL / DEBUG จะกลายเป็นคอขวดเอง
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("logging.level.com.techup", "INFO");
+        // ทุก request มาจาก 127.0.0.1: ไม่ให้ rate limit ต่อ IP ของ register/login ตัดการ seed
+        properties.put("auth.rate-limit.ip-max-attempts", "1000000");
+        properties.putAll(appProperties);
+
+        // ส่งเป็น command-line argument เพราะต้องทับค่าใน application.properties (default properties ลำดับต่ำกว่า)
+        String[] args = properties.entrySet().stream()
+            .map(property -> "--" + property.getKey() + "=" + property.getValue())
+            .toArray(String[]::new);
+        try {
+            application = new SpringApplicationBuilder(ServerApplication.class).run(args);
+        } catch (RuntimeException e) {
+            storage.close();
+            postgres.stop();
+            throw e;
+        }
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + application.getEnvironment().getProperty("local.server.port");
+    }
+
+    public StubStorageServer storage() {
+        return storage;
+    }
+
+    @Override
+    public void close() {
+        application.close();
+        storage.close();
+        postgres.stop();
+    }
+}
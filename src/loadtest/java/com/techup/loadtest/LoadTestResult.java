@@ -0,0 +1,48 @@
+package com.techup.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * สรุปผลของ 1 endpoint ใน scenario: throughput และ percentile ของ latency (ms)
+ */
+public record LoadTestResult(String scenario, long requests, long errors, double seconds,
+                             double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+
+    static LoadTestResult of(String scenario, long[] latenciesNanos, long errors, double seconds) {
+        long[] sorted = latenciesNanos.clone();
+        Arrays.sort(sorted);
+        return new LoadTestResult(scenario, sorted.length, errors, seconds,
+            percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+            sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0);
+    }
+
+    public double throughput() {
+        return seconds > 0 ? requests / seconds : 0;
+    }
+
+    public double errorRate() {
+        return requests > 0 ? (double) errors / requests : 0;
+    }
+
+    public String toJson() {
+        return String.format(Locale.ROOT,
+            "{\"scenario\":\"%s\",\"requests\":%d,\"errors\":%d,\"throughput\":%.1f," +
+            "\"p50Ms\":%.2f,\"p95Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}",
+            scenario, requests, errors, throughput(), p50Ms, p95Ms, p99Ms, maxMs);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-20s %8d req %6d err %9.1f req/s  p50 %8.2f  p95 %8.2f  p99 %8.2f  max %8.2f ms",
+            scenario, requests, errors, throughput(), p50Ms, p95Ms, p99Ms, maxMs);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,171 @@
+package com.techup.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop load generator: worker แต่ละตัวยิง request ต่อกันทันทีที่ได้คำตอบ
+ * ช่วง warmup ไม่นับผล (ให้ JIT / connection pool / cache ของ server อุ่นก่อน)
+ *
+ * แต่ละรอบ worker สุ่ม operation ตาม weight (workload เดียว = operation เดียว weight 1)
+ * operation หนึ่งอาจยิงหลาย endpoint ผ่าน Recorder.call ซึ่งจับเวลาและสรุปผลแยกตามชื่อ endpoint
+ */
+public class LoadTestRunner {
+
+    // 1 request: คืน HTTP status
+    @FunctionalInterface
+    public interface Request {
+        int execute() throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+        void execute(int worker, Recorder recorder) throws Exception;
+    }
+
+    public record WeightedOperation(String name, int weight, Operation operation) {
+    }
+
+    private final int concurrency;
+    private final Duration warmup;
+    private final Duration duration;
+
+    public LoadTestRunner(int concurrency, Duration warmup, Duration duration) {
+        this.concurrency = concurrency;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    public int concurrency() {
+        return concurrency;
+    }
+
+    // ผลต่อ endpoint ตามลำดับที่พบ ชื่อผลเป็น prefix:endpoint เมื่อให้ prefix (เช่น mixed:detail)
+    public List<LoadTestResult> run(String prefix, List<WeightedOperation> operations) throws Exception {
+        int totalWeight = operations.stream().mapToInt(WeightedOperation::weight).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("no operation with weight > 0");
+        }
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+
+        List<Future<Recorder>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                int worker = i;
+                workers.add(executor.submit(() -> {
+                    Recorder recorder = new Recorder(measureFrom);
+                    while (System.nanoTime() < stopAt) {
+                        try {
+                            pick(operations, totalWeight).operation().execute(worker, recorder);
+                        } catch (Exception e) {
+                            // Recorder นับเป็น error แล้ว ไปรอบถัดไป
+                        }
+                    }
+                    return recorder;
+                }));
+            }
+
+            Map<String, Samples> merged = new LinkedHashMap<>();
+            for (Future<Recorder> worker : workers) {
+                worker.get().samples.forEach((endpoint, samples) ->
+                    merged.computeIfAbsent(endpoint, ignored -> new Samples()).addAll(samples));
+            }
+            double seconds = duration.toNanos() / 1e9;
+            List<LoadTestResult> results = new ArrayList<>();
+            merged.forEach((endpoint, samples) -> results.add(LoadTestResult.of(
+                prefix == null ? endpoint : prefix + ":" + endpoint,
+                samples.latencies.toArray(), samples.errors, seconds)));
+            return results;
+        }
+    }
+
+    private static WeightedOperation pick(List<WeightedOperation> operations, int totalWeight) {
+        if (operations.size() == 1) {
+            return operations.get(0);
+        }
+        int ticket = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (WeightedOperation operation : operations) {
+            ticket -= operation.weight();
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * จับเวลา request ของ worker หนึ่งตัว (ไม่ thread-safe ใช้ใน worker ของตัวเองเท่านั้น)
+     * status นอก 2xx/3xx หรือ exception นับเป็น error ของ endpoint นั้น
+     */
+    public static final class Recorder {
+
+        private final long measureFrom;
+        private final Map<String, Samples> samples = new LinkedHashMap<>();
+
+        private Recorder(long measureFrom) {
+            this.measureFrom = measureFrom;
+        }
+
+        public int call(String endpoint, Request request) throws Exception {
+            long start = System.nanoTime();
+            boolean ok = false;
+            try {
+                int status = request.execute();
+                ok = status >= 200 && status < 400;
+                return status;
+            } finally {
+                if (start >= measureFrom) {
+                    Samples endpointSamples = samples.computeIfAbsent(endpoint, ignored -> new Samples());
+                    endpointSamples.latencies.add(System.nanoTime() - start);
+                    if (!ok) {
+                        endpointSamples.errors++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Samples {
+        private final LongList latencies = new LongList();
+        private long errors;
+
+        void addAll(Samples other) {
+            latencies.addAll(other.latencies);
+            errors += other.errors;
+        }
+    }
+
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.techup.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * สร้างข้อมูลตั้งต้นผ่าน API จริง (register + POST /api/trips/bulk) จึงได้ search text, tag count,
+ * version ของรายการครบเหมือนข้อมูลจริง ใช้ได้ทั้งกับ LoadTestEnvironment และ server ที่รันอยู่
+ * ข้อมูลสุ่มจาก seed คงที่: ทุกรอบได้ชื่อ/tag/พิกัดชุดเดิม (ต่างกันแค่ email ของผู้ใช้)
+ */
+public class LoadTestSeeder {
+
+    public static final String PASSWORD = "loadtest-password";
+    // คำที่ใช้ตั้งชื่อทริป และเป็น keyword ของ scenario search (ทุกคำมีทริปที่ค้นเจอ)
+    public static final List<String> KEYWORDS = List.of(
+        "เชียงใหม่", "ทะเล", "ภูเขา", "คาเฟ่", "น้ำตก", "ตลาดน้ำ", "วัด", "เกาะ", "camping", "hiking", "sunset", "street food");
+    private static final List<String> TAGS = List.of(
+        "north", "south", "beach", "mountain", "coffee", "food", "temple", "island", "family", "weekend");
+
+    // bulk endpoint รับได้ไม่เกิน trip.bulk.max-items (ค่าเริ่มต้น 500)
+    private static final int BULK_SIZE = 500;
+    // register ใช้ bcrypt บน pool เล็กๆ ของ server (auth.password.*) ยิงพร้อมกันไม่เกินคิว
+    private static final int REGISTER_CONCURRENCY = 4;
+
+    public record User(long id, String email, String token) {
+    }
+
+    public record SeedData(List<User> users, List<Long> tripIds) {
+    }
+
+    private final LoadTestClient client;
+
+    public LoadTestSeeder(LoadTestClient client) {
+        this.client = client;
+    }
+
+    public SeedData seed(int userCount, int tripCount) throws Exception {
+        if (userCount <= 0 && tripCount > 0) {
+            throw new IllegalArgumentException("--seed-trips requires --seed-users > 0");
+        }
+        if (userCount <= 0) {
+            return new SeedData(List.of(), List.of());
+        }
+        long started = System.nanoTime();
+        List<User> users = registerUsers(userCount);
+
+        Random random = new Random(42);
+        List<Long> tripIds = new ArrayList<>(tripCount);
+        List<TripPayload> chunk = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < tripCount; i++) {
+            chunk.add(randomTrip(random, i));
+            // แต่ละ chunk เป็นของผู้ใช้คนถัดไป กระจายทริปให้หลายคน
+            if (chunk.size() == BULK_SIZE || i == tripCount - 1) {
+                tripIds.addAll(bulkCreate(users.get((i / BULK_SIZE) % users.size()).token(), chunk));
+                chunk.clear();
+            }
+        }
+        System.out.printf(Locale.ROOT, "Seeded %d users and %d trips in %.1f s%n",
+            users.size(), tripIds.size(), (System.nanoTime() - started) / 1e9);
+        return new SeedData(users, tripIds);
+    }
+
+    private List<User> registerUsers(int count) throws Exception {
+        String run = Long.toString(System.currentTimeMillis(), 36);
+        List<Future<User>> futures = new ArrayList<>(count);
+        try (ExecutorService executor = Executors.newFixedThreadPool(REGISTER_CONCURRENCY)) {
+            for (int i = 0; i < count; i++) {
+                String email = "loadtest-" + run + "-" + i + "@example.com";
+                String displayName = "Load Test " + i;
+                futures.add(executor.submit(() -> register(email, displayName)));
+            }
+            List<User> users = new ArrayList<>(count);
+            for (Future<User> future : futures) {
+                users.add(future.get());
+            }
+            return users;
+        }
+    }
+
+    private User register(String email, String displayName) throws IOException, InterruptedException {
+        record Register(String email, String password, String displayName) {
+        }
+        JsonNode user = client.expectJson(client.json(client.request("/api/users/register"), "POST",
+            new Register(email, PASSWORD, displayName)).build(), "register " + email);
+        return new User(user.get("id").asLong(), email, user.get("token").asText());
+    }
+
+    private List<Long> bulkCreate(String token, List<TripPayload> trips) throws IOException, InterruptedException {
+        JsonNode response = client.expectJson(
+            client.json(client.authorized(token, "/api/trips/bulk"), "POST", trips).build(), "bulk create");
+        List<Long> ids = new ArrayList<>(trips.size());
+        for (JsonNode result : response.get("results")) {
+            if ("CREATED".equals(result.path("status").asText())) {
+                ids.add(result.get("id").asLong());
+            }
+        }
+        if (ids.size() != trips.size()) {
+            throw new IllegalStateException("bulk create: " + response.get("failed").asInt() + " trips failed");
+        }
+        return ids;
+    }
+
+    // body ของ POST /api/trips และ /api/trips/bulk (TripRequest)
+    public record TripPayload(String title, String description, List<String> tags, Double latitude, Double longitude) {
+    }
+
+    public static TripPayload randomTrip(Random random, int index) {
+        String first = KEYWORDS.get(random.nextInt(KEYWORDS.size()));
+        String second = KEYWORDS.get(random.nextInt(KEYWORDS.size()));
+        List<String> tags = new ArrayList<>(TAGS);
+        Collections.shuffle(tags, random);
+        return new TripPayload(
+            first + " " + second + " #" + index,
+            "ทริป " + first + " แวะ " + second + " ระหว่างทาง เดินทางสบายๆ ช่วงสุดสัปดาห์ (" + index + ")",
+            tags.subList(0, 1 + random.nextInt(3)),
+            // พิกัดในประเทศไทย
+            5.6 + random.nextDouble() * 14.9,
+            97.3 + random.nextDouble() * 8.4);
+    }
+}
@@ -0,0 +1,71 @@
+package com.techup.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * เกณฑ์ผ่าน/ไม่ผ่านของ load test จาก option:
+ *   --max-p95-ms=200 --max-p99-ms=500 --max-error-rate=0.01 --min-throughput=100
+ * ระบุเฉพาะ endpoint ได้ด้วย .ชื่อ เช่น --max-p95-ms.upload=2000 (ใช้กับทั้ง upload และ mixed:upload)
+ * หรือชื่อเต็ม --max-p95-ms.mixed:upload=2000 ค่าที่ไม่ได้ระบุไม่ตรวจ
+ */
+public class LoadTestThresholds {
+
+    private static final String MAX_P95 = "max-p95-ms";
+    private static final String MAX_P99 = "max-p99-ms";
+    private static final String MAX_ERROR_RATE = "max-error-rate";
+    private static final String MIN_THROUGHPUT = "min-throughput";
+
+    private final Map<String, String> options;
+
+    public LoadTestThresholds(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public boolean isEmpty() {
+        return options.keySet().stream().noneMatch(key -> key.startsWith(MAX_P95) || key.startsWith(MAX_P99)
+            || key.startsWith(MAX_ERROR_RATE) || key.startsWith(MIN_THROUGHPUT));
+    }
+
+    // ข้อความของเกณฑ์ที่ไม่ผ่าน (ว่าง = ผ่านทั้งหมด)
+    public List<String> violations(List<LoadTestResult> results) {
+        List<String> violations = new ArrayList<>();
+        for (LoadTestResult result : results) {
+            Double maxP95 = limit(MAX_P95, result.scenario());
+            if (maxP95 != null && result.p95Ms() > maxP95) {
+                violations.add(describe(result, "p95", result.p95Ms(), "> " + maxP95 + " ms"));
+            }
+            Double maxP99 = limit(MAX_P99, result.scenario());
+            if (maxP99 != null && result.p99Ms() > maxP99) {
+                violations.add(describe(result, "p99", result.p99Ms(), "> " + maxP99 + " ms"));
+            }
+            Double maxErrorRate = limit(MAX_ERROR_RATE, result.scenario());
+            if (maxErrorRate != null && result.errorRate() > maxErrorRate) {
+                violations.add(describe(result, "error rate", result.errorRate(), "> " + maxErrorRate));
+            }
+            Double minThroughput = limit(MIN_THROUGHPUT, result.scenario());
+            if (minThroughput != null && result.throughput() < minThroughput) {
+                violations.add(describe(result, "throughput", result.throughput(), "< " + minThroughput + " req/s"));
+            }
+        }
+        return violations;
+    }
+
+    // ชื่อเต็มก่อน แล้วชื่อ endpoint (หลัง :) แล้วค่ารวม
+    private Double limit(String name, String scenario) {
+        String value = options.get(name + "." + scenario);
+        if (value == null && scenario.contains(":")) {
+            value = options.get(name + "." + scenario.substring(scenario.indexOf(':') + 1));
+        }
+        if (value == null) {
+            value = options.get(name);
+        }
+        return value == null ? null : Double.parseDouble(value);
+    }
+
+    private static String describe(LoadTestResult result, String metric, double actual, String limit) {
+        return String.format(Locale.ROOT, "%s %s %.3f %s", result.scenario(), metric, actual, limit);
+    }
+}
@@ -0,0 +1,89 @@
+package com.techup.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP server แทน Supabase Storage บน localhost สำหรับ load test
+ * รับ upload (POST /storage/v1/object/{bucket}/{path}) และ bulk delete (DELETE /storage/v1/object/{bucket})
+ * หน่วงทุก request ตาม latency เพื่อจำลองเวลาไป-กลับของ Supabase ไม่เก็บไฟล์จริง (อ่าน body ทิ้ง นับแค่จำนวน byte)
+ */
+public class StubStorageServer implements AutoCloseable {
+
+    private static final byte[] OK = "{\"Key\":\"ok\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration latency;
+    private final AtomicLong uploads = new AtomicLong();
+    private final AtomicLong deletes = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+
+    public StubStorageServer(Duration latency) throws IOException {
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/storage/v1/object/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long uploads() {
+        return uploads.get();
+    }
+
+    public long deletes() {
+        return deletes.get();
+    }
+
+    public long bytesReceived() {
+        return bytesReceived.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            bytesReceived.addAndGet(body.transferTo(OutputStream.nullOutputStream()));
+            Thread.sleep(latency.toMillis());
+
+            int status = switch (exchange.getRequestMethod()) {
+                case "POST", "PUT" -> {
+                    uploads.incrementAndGet();
+                    yield 200;
+                }
+                case "DELETE" -> {
+                    deletes.incrementAndGet();
+                    yield 200;
+                }
+                default -> 404;
+            };
+            if (status == 200) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, OK.length);
+                exchange.getResponseBody().write(OK);
+            } else {
+                exchange.sendResponseHeaders(status, -1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+}
@@ -0,0 +1,335 @@
+package com.techup.loadtest;
+
+import com.techup.loadtest.LoadTestRunner.Recorder;
+import com.techup.loadtest.LoadTestRunner.WeightedOperation;
+import com.techup.loadtest.LoadTestSeeder.TripPayload;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Load test ของ API ทริป รายงาน throughput และ latency percentile แยกตาม endpoint
+ *
+ * แบบครบวงจร (ต้องมี Docker): PostgreSQL ใน Testcontainers + stub storage + แอปใน JVM เดียวกัน แล้ว seed ข้อมูลเอง
+ *   ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--embedded=true --scenarios=mixed --seed-trips=5000"
+ * ยิงไปที่ server ที่รันอยู่แล้ว (เช่นเทียบ platform กับ virtual thread โดยรัน server สองรอบ):
+ *   SPRING_THREADS_VIRTUAL_ENABLED=false ./mvnw spring-boot:run
+ *   ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--label=platform --email=a@b.c --password=secret"
+ * ผลแต่ละรอบเขียนไว้ที่ target/loadtest/&lt;label&gt;.json
+ *
+ * scenario (--scenarios คั่นด้วย , ค่าเริ่มต้น feed,detail,upload):
+ *   feed, search, detail, nearby (อ่านแบบไม่ login), create, update, upload (ต้องมีผู้ใช้)
+ *   mixed = สุ่มตาม --mix=feed:30,search:15,detail:30,nearby:10,create:5,update:5,upload:5 ผลชื่อ mixed:&lt;endpoint&gt;
+ * upload ส่ง --photos-per-upload รูป (ค่าเริ่มต้น 3, ไม่เกิน 5) ในครั้งเดียวแล้วลบทีละรูป (endpoint delete-photo)
+ *
+ * ตัวเลือก: --base-url --concurrency --warmup --duration (วินาที) --trip-id
+ *   ผู้ใช้: --email/--password (ผู้ใช้ที่มีอยู่) หรือ --seed-users=N (register ใหม่)
+ *   ข้อมูล: --seed-trips=N (สร้างผ่าน bulk API) ไม่ seed = ใช้ทริปจากหน้าแรกของ feed
+ *   embedded: --postgres-image --storage-latency-ms --app.&lt;property&gt;=&lt;value&gt; (เช่น --app.spring.datasource.hikari.maximum-pool-size=10)
+ *   เกณฑ์ผ่าน/ไม่ผ่าน: ดู LoadTestThresholds ไม่ผ่าน = exit code 1
+ */
+public class TripLoadTest {
+
+    private static final String DEFAULT_MIX = "feed:30,search:15,detail:30,nearby:10,create:5,update:5,upload:5";
+    private static final int MAX_PHOTOS_PER_TRIP = 5;
+
+    private record OwnedTrip(String token, long id) {
+    }
+
+    private final LoadTestClient client;
+    private final List<String> tokens;
+    private final List<Long> tripIds;
+    private final int photosPerUpload;
+    private final byte[] uploadBody;
+    private final String uploadBoundary = "loadtest-boundary";
+    // ทริปของแต่ละ worker สำหรับ update/upload (index = worker) และทริปที่ create สร้างขึ้น
+    private final List<OwnedTrip> workerTrips = new ArrayList<>();
+    private final Queue<OwnedTrip> createdTrips = new ConcurrentLinkedQueue<>();
+
+    TripLoadTest(LoadTestClient client, List<String> tokens, List<Long> tripIds, int photosPerUpload)
+            throws IOException {
+        this.client = client;
+        this.tokens = tokens;
+        this.tripIds = tripIds;
+        this.photosPerUpload = photosPerUpload;
+        this.uploadBody = multipart(photosPerUpload);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        boolean embedded = Boolean.parseBoolean(options.getOrDefault("embedded", "false"));
+        LoadTestEnvironment environment = embedded
+            ? new LoadTestEnvironment(options.getOrDefault("postgres-image", "postgres:16-alpine"),
+                Duration.ofMillis(Long.parseLong(options.getOrDefault("storage-latency-ms", "50"))),
+                appProperties(options))
+            : null;
+        int exitCode;
+        try {
+            exitCode = run(options, environment);
+        } finally {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+        // HttpClient / แอปที่ฝังไว้อาจเหลือ thread ที่ไม่ใช่ daemon
+        System.exit(exitCode);
+    }
+
+    private static int run(Map<String, String> options, LoadTestEnvironment environment) throws Exception {
+        String label = options.getOrDefault("label", "run");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        LoadTestRunner runner = new LoadTestRunner(concurrency,
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10"))),
+            Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))));
+        LoadTestClient client = new LoadTestClient(environment != null
+            ? environment.baseUrl()
+            : options.getOrDefault("base-url", "http://localhost:8080"));
+        List<String> scenarios = List.of(options.getOrDefault("scenarios", "feed,detail,upload").split(","));
+
+        // ข้อมูลตั้งต้น: embedded เริ่มจากฐานข้อมูลว่างจึง seed ให้เสมอ
+        LoadTestSeeder.SeedData seed = new LoadTestSeeder(client).seed(
+            Integer.parseInt(options.getOrDefault("seed-users", environment != null ? "20" : "0")),
+            Integer.parseInt(options.getOrDefault("seed-trips", environment != null ? "1000" : "0")));
+        List<String> tokens = new ArrayList<>(seed.users().stream().map(LoadTestSeeder.User::token).toList());
+        if (options.containsKey("email") && options.containsKey("password")) {
+            tokens.add(client.login(options.get("email"), options.get("password")));
+        }
+        List<Long> tripIds = options.containsKey("trip-id") ? List.of(Long.parseLong(options.get("trip-id")))
+            : !seed.tripIds().isEmpty() ? seed.tripIds()
+            : feedTripIds(client);
+
+        int photosPerUpload = Integer.parseInt(options.getOrDefault("photos-per-upload", "3"));
+        if (photosPerUpload < 1 || photosPerUpload > MAX_PHOTOS_PER_TRIP) {
+            throw new IllegalArgumentException("--photos-per-upload must be 1.." + MAX_PHOTOS_PER_TRIP);
+        }
+        TripLoadTest test = new TripLoadTest(client, tokens, tripIds, photosPerUpload);
+        List<WeightedOperation> mix = test.mix(options.getOrDefault("mix", DEFAULT_MIX));
+
+        List<LoadTestResult> results = new ArrayList<>();
+        try {
+            for (String scenario : scenarios) {
+                List<LoadTestResult> scenarioResults = "mixed".equals(scenario.trim())
+                    ? runner.run("mixed", test.prepare(mix, concurrency))
+                    : runner.run(null, test.prepare(List.of(test.operation(scenario.trim(), 1)), concurrency));
+                for (LoadTestResult result : scenarioResults) {
+                    System.out.println(label + "  " + result);
+                }
+                results.addAll(scenarioResults);
+            }
+        } finally {
+            // embedded ทิ้งฐานข้อมูลทั้งก้อนอยู่แล้ว
+            if (environment == null) {
+                test.cleanUp();
+            }
+        }
+
+        LoadTestThresholds thresholds = new LoadTestThresholds(options);
+        List<String> violations = thresholds.violations(results);
+        violations.forEach(violation -> System.out.println("THRESHOLD FAILED  " + violation));
+        if (!thresholds.isEmpty() && violations.isEmpty()) {
+            System.out.println("All thresholds passed");
+        }
+        if (environment != null) {
+            StubStorageServer storage = environment.storage();
+            System.out.printf("Stub storage: %d uploads, %d deletes, %d bytes received%n",
+                storage.uploads(), storage.deletes(), storage.bytesReceived());
+        }
+
+        Path output = Path.of("target", "loadtest", label + ".json");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, "{\"label\":\"" + label + "\",\"concurrency\":" + concurrency +
+            ",\"embedded\":" + (environment != null) + ",\"seededTrips\":" + seed.tripIds().size() +
+            ",\"results\":[" + results.stream().map(LoadTestResult::toJson).collect(Collectors.joining(",")) + "]" +
+            ",\"passed\":" + violations.isEmpty() + ",\"violations\":[" +
+            violations.stream().map(violation -> "\"" + violation + "\"").collect(Collectors.joining(",")) + "]}");
+        System.out.println("Results written to " + output);
+        return violations.isEmpty() ? 0 : 1;
+    }
+
+    // "feed:30,detail:30" -> operation ตามชื่อ weight 0 = ไม่ใช้
+    List<WeightedOperation> mix(String spec) {
+        List<WeightedOperation> operations = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                operations.add(operation(parts[0].trim(), weight));
+            }
+        }
+        return operations;
+    }
+
+    WeightedOperation operation(String name, int weight) {
+        LoadTestRunner.Operation operation = switch (name) {
+            case "feed" -> (worker, recorder) -> recorder.call("feed", () -> get("/api/trips/feed?size=20"));
+            case "search" -> (worker, recorder) -> recorder.call("search", () -> get("/api/trips/search?size=20&keyword="
+                + URLEncoder.encode(random(LoadTestSeeder.KEYWORDS), StandardCharsets.UTF_8)));
+            case "detail" -> (worker, recorder) -> recorder.call("detail", () -> get("/api/trips/" + random(tripIds)));
+            case "nearby" -> (worker, recorder) -> recorder.call("nearby", () -> get(String.format(
+                Locale.ROOT, "/api/trips/nearby?lat=%.4f&lng=%.4f&radiusKm=50&size=20",
+                ThreadLocalRandom.current().nextDouble(5.6, 20.5), ThreadLocalRandom.current().nextDouble(97.3, 105.7))));
+            case "create" -> this::create;
+            case "update" -> this::update;
+            case "upload" -> this::uploadAndDelete;
+            default -> throw new IllegalArgumentException("unknown scenario: " + name);
+        };
+        return new WeightedOperation(name, weight, operation);
+    }
+
+    // เตรียมทริปของแต่ละ worker เมื่อมี update/upload (ทำครั้งเดียว ใช้ซ้ำทุก scenario)
+    private List<WeightedOperation> prepare(List<WeightedOperation> operations, int concurrency) throws Exception {
+        boolean needsOwnTrip = operations.stream().anyMatch(operation ->
+            operation.name().equals("update") || operation.name().equals("upload"));
+        boolean needsUser = needsOwnTrip || operations.stream().anyMatch(operation -> operation.name().equals("create"));
+        if (needsUser && tokens.isEmpty()) {
+            throw new IllegalArgumentException("create/update/upload require --email/--password or --seed-users");
+        }
+        if (needsOwnTrip && workerTrips.isEmpty()) {
+            Random random = new Random(7);
+            for (int worker = 0; worker < concurrency; worker++) {
+                String token = tokens.get(worker % tokens.size());
+                workerTrips.add(new OwnedTrip(token, createTrip(token, LoadTestSeeder.randomTrip(random, worker))));
+            }
+        }
+        return operations;
+    }
+
+    private void create(int worker, Recorder recorder) throws Exception {
+        String token = tokens.get(worker % tokens.size());
+        TripPayload trip = LoadTestSeeder.randomTrip(ThreadLocalRandom.current(), worker);
+        recorder.call("create", () -> {
+            HttpResponse<byte[]> response = client.sendForBody(
+                client.json(client.authorized(token, "/api/trips"), "POST", trip).build());
+            if (response.statusCode() == 200) {
+                createdTrips.add(new OwnedTrip(token, client.readTree(response.body()).get("id").asLong()));
+            }
+            return response.statusCode();
+        });
+    }
+
+    private void update(int worker, Recorder recorder) throws Exception {
+        OwnedTrip own = workerTrips.get(worker);
+        TripPayload trip = LoadTestSeeder.randomTrip(ThreadLocalRandom.current(), worker);
+        recorder.call("update", () -> client.send(
+            client.json(client.authorized(own.token(), "/api/trips/" + own.id()), "PUT", trip).build()));
+    }
+
+    // อัพโหลดหลายรูปใน request เดียว แล้วลบทุกรูปในทริปออก (ทริปของ worker กลับมาว่างทุกรอบ)
+    private void uploadAndDelete(int worker, Recorder recorder) throws Exception {
+        OwnedTrip own = workerTrips.get(worker);
+        List<String> photos = new ArrayList<>();
+        recorder.call("upload", () -> {
+            HttpResponse<byte[]> response = client.sendForBody(client.authorized(own.token(), "/api/trips/" + own.id() + "/photos")
+                .header("Content-Type", "multipart/form-data; boundary=" + uploadBoundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody))
+                .build());
+            if (response.statusCode() == 200) {
+                client.readTree(response.body()).path("data").path("photos").forEach(photo -> photos.add(photo.asText()));
+            }
+            return response.statusCode();
+        });
+        for (String photo : photos) {
+            recorder.call("delete-photo", () -> client.send(client.authorized(own.token(),
+                    "/api/trips/" + own.id() + "/photos?photoUrl=" + URLEncoder.encode(photo, StandardCharsets.UTF_8))
+                .DELETE().build()));
+        }
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        return client.send(client.request(path).GET().build());
+    }
+
+    private long createTrip(String token, TripPayload trip) throws IOException, InterruptedException {
+        return client.expectJson(client.json(client.authorized(token, "/api/trips"), "POST", trip).build(),
+            "create trip").get("id").asLong();
+    }
+
+    // ลบทริปที่ load test สร้างบน server ที่รันอยู่ (ไม่จับเวลา)
+    private void cleanUp() throws Exception {
+        List<OwnedTrip> trips = new ArrayList<>(workerTrips);
+        trips.addAll(createdTrips);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (OwnedTrip trip : trips) {
+                executor.submit(() -> client.send(client.authorized(trip.token(), "/api/trips/" + trip.id())
+                    .DELETE().build()));
+            }
+        }
+        System.out.println("Deleted " + trips.size() + " load test trips");
+    }
+
+    private static List<Long> feedTripIds(LoadTestClient client) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        client.expectJson(client.request("/api/trips/feed?size=100").GET().build(), "feed")
+            .path("items").forEach(trip -> ids.add(trip.get("id").asLong()));
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("no trips to load (use --seed-trips)");
+        }
+        return ids;
+    }
+
+    private static <T> T random(List<T> values) {
+        return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+    }
+
+    // multipart/form-data ที่มีรูป count รูปในชื่อ field "photos" (สร้างครั้งเดียวใช้ซ้ำ)
+    private byte[] multipart(int count) throws IOException {
+        byte[] photo = samplePhoto();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            body.writeBytes(("--" + uploadBoundary + "\r\nContent-Disposition: form-data; name=\"photos\"; " +
+                "filename=\"photo" + i + ".jpg\"\r\nContent-Type: image/jpeg\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(photo);
+            body.writeBytes("\r\n".getBytes(StandardCharsets.UTF_8));
+        }
+        body.writeBytes(("--" + uploadBoundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        return body.toByteArray();
+    }
+
+    private static byte[] samplePhoto() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(1280, 960, BufferedImage.TYPE_INT_RGB), "jpeg", output);
+        return output.toByteArray();
+    }
+
+    // --app.<property>=<value> -> property ของแอปใน LoadTestEnvironment
+    private static Map<String, String> appProperties(Map<String, String> options) {
+        Map<String, String> properties = new HashMap<>();
+        options.forEach((key, value) -> {
+            if (key.startsWith("app.")) {
+                properties.put(key.substring("app.".length()), value);
+            }
+        });
+        return properties;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
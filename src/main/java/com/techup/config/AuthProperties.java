@@ -0,0 +1,43 @@
+package com.techup.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * ค่าของ register/login (auth.*): การ hash รหัสผ่าน และการจำกัดจำนวนครั้ง
+ */
+@ConfigurationProperties("auth")
+public record AuthProperties(
+        @DefaultValue Password password,
+        @DefaultValue RateLimit rateLimit,
+        @DefaultValue UnknownEmailCache unknownEmailCache) {
+
+    public record Password(
+            // cost ของ BCrypt (log2 ของจำนวนรอบ) เพิ่มทีละ 1 ใช้เวลา x2
+            // hash เดิมที่ cost ต่ำกว่านี้จะถูก hash ใหม่ตอน login สำเร็จ
+            @DefaultValue("10") int bcryptCost,
+            // thread ที่ hash พร้อมกันได้ (งาน CPU ล้วน ไม่ควรเกินจำนวน core)
+            @DefaultValue("2") int poolSize,
+            // งานที่รอได้ เกินนี้ตอบ 503 ทันทีแทนการรอ
+            @DefaultValue("32") int queueCapacity) {
+    }
+
+    public record RateLimit(
+            // login ผิดต่อ email ภายใน window (login สำเร็จล้างค่า)
+            @DefaultValue("5") int emailMaxFailures,
+            @DefaultValue("15m") Duration emailWindow,
+            // register/login ทุกครั้งต่อ IP ภายใน window
+            @DefaultValue("30") int ipMaxAttempts,
+            @DefaultValue("1m") Duration ipWindow,
+            // จำนวน email/IP ที่จำไว้ได้สูงสุด (จำกัด memory)
+            @DefaultValue("100000") long maxTrackedKeys) {
+    }
+
+    public record UnknownEmailCache(
+            @DefaultValue("100000") long maxSize,
+            // สั้นพอที่ instance อื่นจะเห็นผู้ใช้ที่เพิ่ง register (instance เดียวกันล้างทันที)
+            @DefaultValue("10s") Duration ttl) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.techup.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Cache ของ TripResponse สำหรับ GET สาธารณะ (Caffeine / W-TinyLFU จำกัดทั้งขนาดและอายุ)
+ * สถิติ hit/miss/eviction ดูได้ที่ /actuator/prometheus (cache_gets_total, cache_evictions_total)
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(HttpCacheProperties.class)
+public class CacheConfig {
+
+    // รายละเอียดทริป key = ETag ของทริป (id + updated_at) ทริปที่ถูกแก้จึง miss เอง
+    // entry ของเวอร์ชันเก่าไม่ต้องล้าง ปล่อยให้หมดอายุตาม ttl / max-size
+    public static final String TRIP_DETAIL = "tripDetail";
+
+    // ผลลัพธ์แบบรายการ (feed, search, nearby, tags) key ขึ้นต้นด้วย version ของรายการ (TripListVersion)
+    // การเขียนไม่ต้องล้าง: version เพิ่มหลัง commit แล้ว key ใหม่ miss เอง entry เก่าหมดอายุตาม ttl / max-size
+    public static final String TRIP_LISTS = "tripLists";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${trip.cache.detail.max-size:10000}") long detailMaxSize,
+            @Value("${trip.cache.detail.ttl:5m}") Duration detailTtl,
+            @Value("${trip.cache.lists.max-size:1000}") long listsMaxSize,
+            @Value("${trip.cache.lists.ttl:30s}") Duration listsTtl) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(TRIP_DETAIL, Caffeine.newBuilder()
+            .maximumSize(detailMaxSize)
+            .expireAfterWrite(detailTtl)
+            .recordStats()
+            .build());
+        cacheManager.registerCustomCache(TRIP_LISTS, Caffeine.newBuilder()
+            .maximumSize(listsMaxSize)
+            .expireAfterWrite(listsTtl)
+            .recordStats()
+            .build());
+
+        // put ที่เกิดใน transaction ทำหลัง commit เท่านั้น (ค่าที่ rollback ไม่เข้า cache)
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -0,0 +1,25 @@
+package com.techup.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.http.CacheControl;
+
+import java.time.Duration;
+
+/**
+ * Cache-Control ของ GET สาธารณะ (trip.http-cache.*)
+ */
+@ConfigurationProperties("trip.http-cache")
+public record HttpCacheProperties(
+        // browser เก็บได้นานเท่าไร (0 = ถาม server ทุกครั้ง ซึ่งส่วนใหญ่ได้ 304)
+        @DefaultValue("0s") Duration maxAge,
+        // CDN / shared cache เก็บได้นานเท่าไร (s-maxage)
+        @DefaultValue("30s") Duration sharedMaxAge) {
+
+    public CacheControl cacheControl() {
+        return CacheControl.maxAge(maxAge)
+            .sMaxAge(sharedMaxAge)
+            .cachePublic()
+            .mustRevalidate();
+    }
+}
@@ -0,0 +1,34 @@
+package com.techup.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool สำหรับย่อรูป (CPU + heap หนัก) จำกัดทั้งจำนวน thread และความยาวคิว
+ * คิวเต็มจะปฏิเสธงานทันที ไม่ให้ upload จำนวนมากดัน heap จน OOM (-Xmx512m)
+ */
+@Configuration
+public class ImageProcessingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageProcessingExecutor(
+            @Value("${trip.image.pool-size:2}") int poolSize,
+            @Value("${trip.image.queue-capacity:20}") int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "image-processing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
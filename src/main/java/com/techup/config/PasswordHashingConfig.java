@@ -0,0 +1,41 @@
+package com.techup.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool สำหรับ BCrypt (CPU ล้วน ~50-100ms ต่อครั้งที่ cost 10) แยกจาก request thread
+ * request รันบน virtual thread ถ้า hash ตรงนั้นจะยึด carrier thread ไว้จน GET อื่นๆ ไม่ได้รัน
+ * คิวเต็มจะปฏิเสธงานทันที (ตอบ 503) ไม่ให้ login จำนวนมากแย่ง CPU ทั้งเครื่อง
+ */
+@Configuration
+@EnableConfigurationProperties(AuthProperties.class)
+public class PasswordHashingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor(AuthProperties properties) {
+        AuthProperties.Password password = properties.password();
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(password.poolSize(), password.poolSize(), 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(password.queueCapacity()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder(AuthProperties properties) {
+        return new BCryptPasswordEncoder(properties.password().bcryptCost());
+    }
+}
@@ -0,0 +1,10 @@
+package com.techup.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// งานเบื้องหลัง เช่น StorageDeletionWorker
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -5,13 +5,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 
 import java.util.List;
 
@@ -30,16 +31,25 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // export ทั้งตาราง ต้อง login (ประกาศก่อน /api/trips/** ที่เปิดสาธารณะ)
+                        .requestMatchers(HttpMethod.GET, "/api/trips/export").authenticated()
                         // Public GET endpoints
                         .requestMatchers(HttpMethod.GET, "/api/trips/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/users/**").permitAll()
                             // ✅ Public POST endpoints (เพิ่มบรรทัดนี้)
                         .requestMatchers(HttpMethod.POST, "/api/users/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/api/users/login").permitAll()
+                        // health check ของ load balancer และ Prometheus scrape
+                        .requestMatchers(HttpMethod.GET, "/actuator/health/**", "/actuator/prometheus").permitAll()
+                        // endpoint อื่นของ actuator ปิดแม้มี token (ผู้ใช้ทุกคน register ได้เอง ไม่มี role ผู้ดูแล)
+                        .requestMatchers("/actuator/**").denyAll()
 
                         // Protected POST/PUT/DELETE
                         .anyRequest().authenticated())
                 .httpBasic(httpBasic -> httpBasic.disable())
+                // ไม่มี/token ไม่ถูกต้อง ตอบ 401 (ค่าเริ่มต้นเมื่อปิด httpBasic คือ 403)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
                 .sessionManagement(session -> session.sessionCreationPolicy(
                         org.springframework.security.config.http.SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -55,15 +65,12 @@ public class SecurityConfig {
         config.setAllowedOriginPatterns(List.of("*"));
         config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS"));
         config.setAllowedHeaders(List.of("Authorization", "Content-Type", "Accept"));
+        // ให้ JavaScript อ่าน URL ฐานของรูปได้ (photos ใน response เป็น key)
+        config.setExposedHeaders(List.of(WebConfig.PHOTO_BASE_URL_HEADER));
         config.setAllowCredentials(false); // ต้อง false เพราะ JWT header ไม่ใช้ cookies
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", config);
         return source;
     }
-
-    @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
 }
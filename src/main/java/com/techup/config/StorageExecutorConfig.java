@@ -0,0 +1,20 @@
+package com.techup.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor สำหรับงาน I/O กับ Supabase Storage (อัพโหลด/ลบไฟล์)
+ * ใช้ virtual thread ต่อ 1 งาน เพราะงานส่วนใหญ่คือรอ network ไม่ได้ใช้ CPU
+ */
+@Configuration
+public class StorageExecutorConfig {
+
+    @Bean(destroyMethod = "close")
+    public ExecutorService storageExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,84 @@
+package com.techup.config;
+
+import com.techup.http.BulkheadInterceptor;
+import com.techup.http.CircuitBreakerInterceptor;
+import com.techup.http.HttpClientMetricsInterceptor;
+import com.techup.http.RetryInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OkHttpClient ตัวเดียวของ Supabase Storage ใช้ connection pool / dispatcher ร่วมกันทั้งแอป
+ * ลำดับ interceptor: metrics (วัดรวม retry) -> bulkhead -> circuit breaker -> retry
+ */
+@Configuration
+@EnableConfigurationProperties(StorageHttpProperties.class)
+public class StorageHttpConfig {
+
+    public static final String METRIC_NAME = "storage.http.client.requests";
+
+    @Bean
+    public CircuitBreakerInterceptor storageCircuitBreaker(StorageHttpProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        CircuitBreakerInterceptor circuitBreaker = new CircuitBreakerInterceptor(
+            properties.circuitBreaker().failureThreshold(),
+            properties.circuitBreaker().openDuration());
+        meterRegistry.gauge("storage.http.client.circuit.open", circuitBreaker,
+            breaker -> breaker.status() == CircuitBreakerInterceptor.Status.CLOSED ? 0 : 1);
+        return circuitBreaker;
+    }
+
+    // executor ของ dispatcher แยกเป็น bean เพื่อให้ปิดตอน context ปิด (OkHttpClient ไม่มี close)
+    // call แบบ async (enqueue) รันบน virtual thread เหมือน request ของ Tomcat
+    // ถ้าไม่ใช้ virtual thread ตั้งค่าเหมือน executor ที่ Dispatcher สร้างเอง
+    @Bean(destroyMethod = "close")
+    public ExecutorService storageHttpExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (virtualThreads) {
+            return Executors.newVirtualThreadPerTaskExecutor();
+        }
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(),
+            Thread.ofPlatform().name("storage-http-", 0).daemon(true).factory());
+    }
+
+    @Bean
+    public OkHttpClient storageHttpClient(StorageHttpProperties properties,
+                                          CircuitBreakerInterceptor storageCircuitBreaker,
+                                          MeterRegistry meterRegistry,
+                                          ExecutorService storageHttpExecutor) {
+        Dispatcher dispatcher = new Dispatcher(storageHttpExecutor);
+        dispatcher.setMaxRequests(properties.maxRequests());
+        dispatcher.setMaxRequestsPerHost(properties.maxRequestsPerHost());
+
+        return new OkHttpClient.Builder()
+            .dispatcher(dispatcher)
+            .connectionPool(new ConnectionPool(properties.maxIdleConnections(),
+                properties.keepAlive().toMillis(), TimeUnit.MILLISECONDS))
+            // HTTP/2 ผ่าน ALPN เมื่อเป็น https: หลาย upload ใช้ connection เดียวกันได้
+            .protocols(properties.http2() ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+            .connectTimeout(properties.connectTimeout())
+            .readTimeout(properties.readTimeout())
+            .writeTimeout(properties.writeTimeout())
+            .callTimeout(properties.callTimeout())
+            .addInterceptor(new HttpClientMetricsInterceptor(meterRegistry, METRIC_NAME))
+            .addInterceptor(new BulkheadInterceptor(properties.maxConcurrentCalls(), properties.maxConcurrentWait()))
+            .addInterceptor(storageCircuitBreaker)
+            .addInterceptor(new RetryInterceptor(properties.retry().maxAttempts(),
+                properties.retry().initialBackoff(), properties.retry().maxBackoff()))
+            .build();
+    }
+}
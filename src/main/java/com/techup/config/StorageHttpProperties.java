@@ -0,0 +1,45 @@
+package com.techup.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * ค่าของ HTTP client ที่คุยกับ Supabase Storage (supabase.http.*)
+ */
+@ConfigurationProperties("supabase.http")
+public record StorageHttpProperties(
+        @DefaultValue("5s") Duration connectTimeout,
+        @DefaultValue("30s") Duration readTimeout,
+        @DefaultValue("30s") Duration writeTimeout,
+        // เวลารวมทั้ง call รวม retry ด้วย กัน Tomcat thread ค้างเมื่อ storage ช้า
+        @DefaultValue("60s") Duration callTimeout,
+        @DefaultValue("10") int maxIdleConnections,
+        @DefaultValue("5m") Duration keepAlive,
+        @DefaultValue("64") int maxRequests,
+        @DefaultValue("32") int maxRequestsPerHost,
+        // จำนวน call ที่เข้า OkHttp ได้พร้อมกัน ที่เหลือรอไม่เกิน maxConcurrentWait
+        // (กัน virtual thread จำนวนมากไปแย่ง connection / ติด synchronized ของ OkHttp พร้อมกัน)
+        @DefaultValue("32") int maxConcurrentCalls,
+        @DefaultValue("5s") Duration maxConcurrentWait,
+        // Http2Writer ของ OkHttp 4 เขียน socket ใน synchronized (pin virtual thread บน JDK 21)
+        // ถ้าพบปัญหา pinning ให้ปิดแล้วใช้ HTTP/1.1 ตาม connection pool แทน
+        @DefaultValue("true") boolean http2,
+        @DefaultValue Retry retry,
+        @DefaultValue CircuitBreaker circuitBreaker) {
+
+    public record Retry(
+            // จำนวนครั้งทั้งหมดรวมครั้งแรก
+            @DefaultValue("3") int maxAttempts,
+            @DefaultValue("200ms") Duration initialBackoff,
+            @DefaultValue("2s") Duration maxBackoff) {
+    }
+
+    public record CircuitBreaker(
+            // ล้มเหลวติดกันกี่ครั้งจึงเปิดวงจร
+            @DefaultValue("5") int failureThreshold,
+            // เปิดวงจรนานเท่าไรก่อนยอมให้ลอง 1 call (half-open)
+            @DefaultValue("30s") Duration openDuration) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.techup.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.techup.service.SupabaseStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * รูปแบบ response ของ API
+ * - JSON เป็นค่าเริ่มต้น (บีบอัด gzip ด้วย server.compression)
+ * - Accept: application/x-jackson-smile หรือ application/cbor ได้ binary ของ DTO เดียวกัน
+ *   (ObjectMapper สร้างจาก builder ของ Spring Boot จึงได้ module / spring.jackson.* เหมือน JSON)
+ * - photos ใน response เป็น key ต่อจาก X-Photo-Base-Url ไม่ส่ง URL เต็มซ้ำทุกรูป
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    public static final String PHOTO_BASE_URL_HEADER = "X-Photo-Base-Url";
+
+    private final SupabaseStorageService storageService;
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        String photoBaseUrl = storageService.publicBaseUrl();
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                response.setHeader(PHOTO_BASE_URL_HEADER, photoBaseUrl);
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,46 @@
+package com.techup.controller;
+
+import com.techup.security.TooManyAttemptsException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+// แปลง exception เป็น status code ให้ทุก controller ในรูปแบบ body เดียวกัน {"success": false, "message": ...}
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    // พารามิเตอร์ไม่ถูกต้อง (เช่น cursor เสีย) ตอบ 400 แทน 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(error(e));
+    }
+
+    // register/login ถี่เกินไป ตอบ 429 พร้อมเวลาที่ควรรอ
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<?> handleTooManyAttempts(TooManyAttemptsException e) {
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(error(e));
+    }
+
+    // คิวของ PasswordHasher เต็ม ตอบ 503 ให้ลองใหม่แทนการรอคิวยาว
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleBusy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error(e));
+    }
+
+    private static Map<String, Object> error(Exception e) {
+        return Map.of(
+                "success", false,
+                "message", e.getMessage()
+        );
+    }
+}
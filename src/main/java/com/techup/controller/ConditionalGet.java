@@ -0,0 +1,42 @@
+package com.techup.controller;
+
+import com.techup.config.HttpCacheProperties;
+import com.techup.dto.ResourceVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Function;
+
+/**
+ * ตอบ GET สาธารณะแบบมี ETag / Last-Modified / Cache-Control
+ * ตัดสิน 304 จาก ResourceVersion อย่างเดียว แล้วค่อยโหลด body เมื่อข้อมูลเปลี่ยนจริง
+ * body ต้องโหลดด้วย version เดียวกับ ETag: TripService ใช้ version เป็นส่วนหนึ่งของ cache key
+ * และไม่ล้าง cache ตอนเขียน การเขียนเพิ่ม version หลัง commit (TripListVersion) key ใหม่จึง miss เอง
+ * (version อ่านก่อน body เสมอ body จึงใหม่เท่ากับหรือใหม่กว่า ETag: พลาดได้แค่ 200 ซ้ำอีกรอบ)
+ * Vary: Accept เพราะ URL เดียวกันตอบเป็น JSON / Smile / CBOR ตาม Accept (Tomcat ใส่ Accept-Encoding เอง)
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGet {
+
+    private final HttpCacheProperties httpCache;
+
+    public <T> ResponseEntity<T> respond(WebRequest request, ResourceVersion version,
+                                         Function<ResourceVersion, T> body) {
+        // ตรวจ If-None-Match (และ If-Modified-Since ถ้าไม่มี If-None-Match) และใส่ ETag / Last-Modified ให้ response
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .cacheControl(httpCache.cacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .cacheControl(httpCache.cacheControl())
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(body.apply(version));
+    }
+}
@@ -0,0 +1,27 @@
+package com.techup.controller;
+
+import com.techup.dto.UserTripsResponse;
+import com.techup.security.SecurityUtils;
+import com.techup.service.TripService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+// API ของผู้ใช้ที่ login อยู่ (ต้องมี token)
+@RestController
+@RequestMapping("/api/me")
+@RequiredArgsConstructor
+public class MeController {
+
+    private final TripService tripService;
+
+    @GetMapping("/trips")
+    public UserTripsResponse getMyTrips(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return tripService.getUserTrips(tripService.getListVersion(), userId, cursor, size);
+    }
+}
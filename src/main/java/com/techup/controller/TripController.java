@@ -1,15 +1,21 @@
 package com.techup.controller;
 
+import com.techup.dto.BulkTripResponse;
+import com.techup.dto.TagCountResponse;
+import com.techup.dto.TripPageResponse;
 import com.techup.dto.TripRequest;
 import com.techup.dto.TripResponse;
+import com.techup.image.ImageProcessingBusyException;
+import com.techup.security.SecurityUtils;
+import com.techup.service.TripBulkService;
 import com.techup.service.TripService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.util.List;
 import java.util.Map;
@@ -20,47 +26,80 @@ import java.util.Map;
 public class TripController {
 
     private final TripService tripService;
+    private final TripBulkService tripBulkService;
+    private final ConditionalGet conditionalGet;
 
     // ----------------- Visitor APIs -----------------
+    // ทุก GET ตอบ 304 ได้ถ้า If-None-Match / If-Modified-Since ตรงกับเวอร์ชันปัจจุบัน (ดู ConditionalGet)
     @GetMapping
-    public List<TripResponse> getAllTrips() {
-        return tripService.getAllTrips();
+    public ResponseEntity<List<TripResponse>> getAllTrips(WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getListVersion(), tripService::getAllTrips);
     }
 
-    @GetMapping("/search")
-    public List<TripResponse> searchTrips(@RequestParam String keyword) {
-        return tripService.searchByKeyword(keyword);
+    @GetMapping("/feed")
+    public ResponseEntity<TripPageResponse> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getListVersion(),
+                version -> tripService.getFeed(version, cursor, size));
     }
 
-    @GetMapping("/{id}")
-    public TripResponse getTripDetail(@PathVariable Long id) {
-        return tripService.getTripById(id);
+    @GetMapping("/search")
+    public ResponseEntity<List<TripResponse>> searchTrips(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getListVersion(),
+                version -> tripService.searchByKeyword(version, keyword, page, size));
     }
 
-    // ----------------- Authenticated User APIs -----------------
-private Long getCurrentUserId() {
-    Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-    if (auth == null) {
-        return null;
+    @GetMapping("/nearby")
+    public ResponseEntity<List<TripResponse>> getNearbyTrips(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "10") double radiusKm,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getListVersion(),
+                version -> tripService.findNearby(version, lat, lng, radiusKm, page, size));
     }
 
-    // สมมติเก็บ userId ไว้ใน details ของ authToken
-    Object details = auth.getDetails();
-    if (details instanceof Long) {
-        return (Long) details;
+    // tags=a&tags=b หรือ tags=a,b ; match=all (ต้องมีครบ) | any (มีอย่างน้อยหนึ่ง)
+    @GetMapping("/by-tags")
+    public ResponseEntity<List<TripResponse>> getTripsByTags(
+            @RequestParam List<String> tags,
+            @RequestParam(defaultValue = "all") String match,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        if (!match.equals("all") && !match.equals("any")) {
+            throw new IllegalArgumentException("match ต้องเป็น all หรือ any");
+        }
+        return conditionalGet.respond(webRequest, tripService.getListVersion(),
+                version -> tripService.findByTags(version, tags, match.equals("all"), page, size));
     }
 
-    // หรือถ้าใช้ CustomUserDetails:
-    // if (auth.getPrincipal() instanceof CustomUserDetails) {
-    //     return ((CustomUserDetails) auth.getPrincipal()).getUserId();
-    // }
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCountResponse>> getTagCounts(
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getListVersion(),
+                version -> tripService.getTagCounts(version, limit));
+    }
 
-    return null;
-}
+    @GetMapping("/{id}")
+    public ResponseEntity<TripResponse> getTripDetail(@PathVariable Long id, WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getTripVersion(id),
+                version -> tripService.getTripById(version, id));
+    }
 
+    // ----------------- Authenticated User APIs -----------------
     @PostMapping
     public TripResponse createTrip(@RequestBody TripRequest request) {
-        Long userId = getCurrentUserId();
+        Long userId = SecurityUtils.getCurrentUserId();
         if (userId == null) {
             throw new RuntimeException("User not authenticated");
         }
@@ -68,9 +107,19 @@ private Long getCurrentUserId() {
         return tripService.createTrip(request);
     }
 
+    // สร้าง/แก้ไขหลายทริปในครั้งเดียว (รายการที่มี id = แก้ไข) ผลแยกตามรายการ
+    @PostMapping("/bulk")
+    public BulkTripResponse bulkUpsertTrips(@RequestBody List<TripRequest> requests) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (userId == null) {
+            throw new RuntimeException("User not authenticated");
+        }
+        return tripBulkService.upsert(requests, userId);
+    }
+
     @PutMapping("/{id}")
     public TripResponse updateTrip(@PathVariable Long id, @RequestBody TripRequest request) {
-        Long userId = getCurrentUserId();
+        Long userId = SecurityUtils.getCurrentUserId();
         if (userId == null) {
             throw new RuntimeException("User not authenticated");
         }
@@ -79,7 +128,7 @@ private Long getCurrentUserId() {
 
     @DeleteMapping("/{id}")
     public void deleteTrip(@PathVariable Long id) {
-        Long userId = getCurrentUserId();
+        Long userId = SecurityUtils.getCurrentUserId();
         if (userId == null) {
             throw new RuntimeException("User not authenticated");
         }
@@ -91,7 +140,7 @@ private Long getCurrentUserId() {
     public ResponseEntity<?> uploadPhotos(
             @PathVariable Long id,
             @RequestParam("photos") List<MultipartFile> photos) {
-        Long userId = getCurrentUserId();
+        Long userId = SecurityUtils.getCurrentUserId();
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
                     "success", false,
@@ -111,6 +160,14 @@ private Long getCurrentUserId() {
                     "success", false,
                     "message", e.getMessage()
             ));
+        } catch (ImageProcessingBusyException e) {
+            // คิวย่อรูปเต็ม: ให้ client ลองใหม่ (เหมือน handleBusy ของ UserController)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of(
+                            "success", false,
+                            "message", e.getMessage()
+                    ));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
                     "success", false,
@@ -123,7 +180,7 @@ private Long getCurrentUserId() {
     public ResponseEntity<?> deletePhoto(
             @PathVariable Long id,
             @RequestParam("photoUrl") String photoUrl) {
-        Long userId = getCurrentUserId();
+        Long userId = SecurityUtils.getCurrentUserId();
         if (userId == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of(
                     "success", false,
@@ -0,0 +1,41 @@
+package com.techup.controller;
+
+import com.techup.service.TripExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Export ทุกทริปเป็น NDJSON สำหรับงาน analytics (ต้องมี token)
+// เขียนลง response ตรงๆ ใน request thread (ไม่ใช้ async จึงไม่โดน async request timeout ระหว่าง export ยาวๆ)
+@RestController
+@RequestMapping("/api/trips/export")
+@RequiredArgsConstructor
+public class TripExportController {
+
+    private static final Logger log = LoggerFactory.getLogger(TripExportController.class);
+
+    private final TripExportService tripExportService;
+
+    // afterId: resume ต่อจาก id ของบรรทัดสุดท้ายที่ได้รับ (0 = เริ่มจากทริปแรก)
+    @GetMapping
+    public void exportTrips(@RequestParam(defaultValue = "0") long afterId,
+                            HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+
+        long exported = tripExportService.exportNdjson(afterId, response.getOutputStream());
+        log.info("Exported {} trips after id {}", exported, afterId);
+    }
+}
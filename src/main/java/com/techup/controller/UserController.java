@@ -3,9 +3,14 @@ package com.techup.controller;
 import com.techup.dto.UserRequest;
 import com.techup.dto.UserResponse;
 import com.techup.dto.UserLoginRequest;
+import com.techup.dto.UserTripsResponse;
+import com.techup.service.TripService;
 import com.techup.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/users")
@@ -13,14 +18,28 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final TripService tripService;
+    private final ConditionalGet conditionalGet;
 
+    // IP จาก getRemoteAddr (หลัง proxy ใช้ X-Forwarded-For ผ่าน server.forward-headers-strategy)
     @PostMapping("/register")
-    public UserResponse register(@RequestBody UserRequest request) {
-        return userService.register(request);
+    public UserResponse register(@RequestBody UserRequest request, HttpServletRequest httpRequest) {
+        return userService.register(request, httpRequest.getRemoteAddr());
     }
 
     @PostMapping("/login")
-    public UserResponse login(@RequestBody UserLoginRequest request) {
-        return userService.login(request);
+    public UserResponse login(@RequestBody UserLoginRequest request, HttpServletRequest httpRequest) {
+        return userService.login(request, httpRequest.getRemoteAddr());
+    }
+
+    // ทริปของผู้ใช้ (cursor จาก nextCursor ของหน้าก่อน)
+    @GetMapping("/{id}/trips")
+    public ResponseEntity<UserTripsResponse> getUserTrips(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest) {
+        return conditionalGet.respond(webRequest, tripService.getListVersion(),
+                version -> tripService.getUserTrips(version, id, cursor, size));
     }
 }
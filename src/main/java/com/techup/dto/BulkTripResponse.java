@@ -0,0 +1,15 @@
+package com.techup.dto;
+
+import lombok.Builder;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class BulkTripResponse {
+    private int created;
+    private int updated;
+    private int failed;
+    private List<BulkTripResult> results;
+}
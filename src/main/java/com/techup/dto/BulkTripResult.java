@@ -0,0 +1,18 @@
+package com.techup.dto;
+
+import lombok.Builder;
+import lombok.*;
+
+// ผลของแต่ละรายการใน bulk request (index ตรงกับลำดับใน request)
+@Getter
+@Setter
+@Builder
+public class BulkTripResult {
+
+    public enum Status { CREATED, UPDATED, FAILED }
+
+    private int index;
+    private Long id;        // null เมื่อ FAILED ตอนสร้าง
+    private Status status;
+    private String message; // เหตุผลเมื่อ FAILED
+}
@@ -0,0 +1,29 @@
+package com.techup.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * เวอร์ชันของ resource สำหรับ conditional GET: weak ETag + Last-Modified (epoch millis, -1 = ไม่ทราบ)
+ * หาได้จากคอลัมน์เวอร์ชันอย่างเดียว ไม่ต้องโหลด entity หรือ body
+ * เป็น weak เพราะข้อมูลเดียวกันมีหลาย representation (JSON/Smile/CBOR, gzip หรือไม่)
+ * และ Tomcat ไม่บีบอัด response ที่มี strong ETag
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    // รายละเอียดทริป: (id, updatedAt) ความละเอียดระดับ microsecond เท่ากับคอลัมน์ใน PostgreSQL
+    public static ResourceVersion ofTrip(Long id, LocalDateTime updatedAt) {
+        Instant instant = updatedAt.toInstant(ZoneOffset.UTC);
+        long micros = ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+        return new ResourceVersion("W/\"trip-" + id + "-" + micros + "\"", instant.toEpochMilli());
+    }
+
+    // รายการ: version ของรายการทั้งชุด (ETag ผูกกับ URL อยู่แล้ว query ต่างกันจึงใช้ version เดียวกันได้)
+    public static ResourceVersion ofCollection(String name, long version, OffsetDateTime updatedAt) {
+        return new ResourceVersion("W/\"" + name + "-" + version + "\"",
+            updatedAt != null ? updatedAt.toInstant().toEpochMilli() : -1);
+    }
+}
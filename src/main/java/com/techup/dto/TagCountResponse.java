@@ -0,0 +1,11 @@
+package com.techup.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class TagCountResponse {
+    private String tag;
+    private long count;
+}
@@ -0,0 +1,14 @@
+package com.techup.dto;
+
+import lombok.Builder;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class TripPageResponse {
+    private List<TripResponse> items;
+    private String nextCursor;  // null เมื่อไม่มีหน้าถัดไป
+    private boolean hasMore;
+}
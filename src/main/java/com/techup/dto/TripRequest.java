@@ -5,6 +5,7 @@ import java.util.List;
 
 @Data
 public class TripRequest {
+    private Long id;  // ใช้เฉพาะ bulk: มี id = แก้ไขทริปเดิม, ไม่มี = สร้างใหม่
     private String title;
     private String description;
     private List<String> photos;
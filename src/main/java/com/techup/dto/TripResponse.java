@@ -2,20 +2,39 @@ package com.techup.dto;
 
 import lombok.Builder;
 import lombok.*;
+import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
 
 @Getter
 @Setter
 @Builder
+@AllArgsConstructor
 public class TripResponse {
     private Long id;
     private String title;
     private String description;
+    // key ของรูป (path ภายใน bucket) ไม่ใช่ URL เต็ม: public URL = header X-Photo-Base-Url + key
+    // รูปจากภายนอกที่ client ใส่มาเองยังเป็น URL เต็ม (ขึ้นต้นด้วย http)
     private String[] photos;
+    // รูปขนาดย่อของแต่ละรูปใน photos: {"<key>": {"medium": <key>, "thumb": <key>}}
+    private Map<String, Map<String, String>> photoVariants;
     private String[] tags;
     private Double latitude;
     private Double longitude;
     private Long authorId;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
-}
\ No newline at end of file
+
+    // ใช้กับ JPQL constructor projection (SELECT new ...) ใน TripRepository
+    // อ่านจากตาราง trips ตรงๆ ไม่ต้องโหลด Trip/User entity
+    public TripResponse(Long id, String title, String description, String[] photos,
+                        Map<String, Map<String, String>> photoVariants, String[] tags,
+                        Double latitude, Double longitude, Long authorId,
+                        LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, title, description, photos, photoVariants, tags, latitude, longitude, authorId,
+             createdAt != null ? createdAt.atOffset(ZoneOffset.UTC) : null,
+             updatedAt != null ? updatedAt.atOffset(ZoneOffset.UTC) : null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.techup.dto;
+
+import lombok.Builder;
+import lombok.*;
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+public class UserTripsResponse {
+    private Long userId;
+    private long tripCount;     // ทริปทั้งหมดของผู้ใช้ (users.trip_count)
+    private List<TripResponse> items;
+    private String nextCursor;  // null เมื่อไม่มีหน้าถัดไป
+    private boolean hasMore;
+}
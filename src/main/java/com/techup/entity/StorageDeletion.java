@@ -0,0 +1,51 @@
+package com.techup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// ไฟล์ใน Supabase Storage ที่รอลบ (outbox) บันทึกใน transaction เดียวกับการลบทริป/รูป
+// แล้ว StorageDeletionWorker ค่อยลบจริงทีละ batch
+@Entity
+@Table(name = "storage_deletions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // path ของไฟล์ภายใน bucket เช่น trips/7/uuid.jpg
+    @Column(name = "object_path", nullable = false, columnDefinition = "TEXT")
+    private String objectPath;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // ยังไม่ถึงเวลานี้ worker จะไม่หยิบไปทำ (ใช้เป็นทั้ง lease และ backoff)
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    // ล้มเหลวครบ storage.deletion.max-attempts แล้ว worker จะไม่หยิบไปทำอีก (null = ยังรอทำ)
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = createdAt;
+        }
+    }
+}
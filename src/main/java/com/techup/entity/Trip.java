@@ -1,8 +1,12 @@
 package com.techup.entity;
 
+import com.techup.search.ThaiTextTokenizer;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Map;
 import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 
 @Entity 
@@ -14,8 +18,10 @@ import lombok.*;
 @Builder
 public class Trip {
 
+    // sequence แบบ pooled (จองครั้งละ 50) ให้ insert หลายทริปเป็น JDBC batch ได้ (ดู V5 migration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trips_pooled_id_seq")
+    @SequenceGenerator(name = "trips_pooled_id_seq", sequenceName = "trips_pooled_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, columnDefinition = "TEXT")
@@ -27,6 +33,11 @@ public class Trip {
     @Column(name = "photos", columnDefinition = "TEXT[]")
     private String[] photos;
 
+    // รูปขนาดย่อของแต่ละรูป: URL ใน photos[] -> {"medium": url, "thumb": url}
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "photo_variants", columnDefinition = "JSONB")
+    private Map<String, Map<String, String>> photoVariants;
+
     @Column(name = "tags", columnDefinition = "TEXT[]")
     private String[] tags;
 
@@ -42,32 +53,33 @@ public class Trip {
 
     private LocalDateTime updatedAt;
 
+    // title + description + tags ที่ตัดคำแล้ว (รองรับภาษาไทย) สำหรับ full-text search
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    // PostgreSQL คำนวณจาก search_text ให้เองทุกครั้งที่เขียน (generated column + GIN index ดู V1/V2 migration)
+    // แอปอ่านอย่างเดียว
+    @Column(name = "search_vector", insertable = false, updatable = false, columnDefinition = "tsvector")
+    private String searchVector;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
         if (photos == null) photos = new String[]{};
         if (tags == null) tags = new String[]{};
+        refreshSearchText();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        refreshSearchText();
     }
-}
-
 
+    public void refreshSearchText() {
+        searchText = ThaiTextTokenizer.searchTextOf(title, description, tags);
+    }
+}
 
-// -- ตารางทริป (เพิ่ม location)
-// CREATE TABLE trips (
-//   id BIGSERIAL PRIMARY KEY,
-//   title TEXT NOT NULL,
-//   description TEXT,
-//   photos TEXT[] NOT NULL DEFAULT '{}',
-//   tags TEXT[] NOT NULL DEFAULT '{}',
-//   latitude DOUBLE PRECISION,
-//   longitude DOUBLE PRECISION,
-//   author_id BIGINT REFERENCES users(id) ON DELETE SET NULL,
-//   created_at TIMESTAMPTZ DEFAULT NOW(),
-//   updated_at TIMESTAMPTZ DEFAULT NOW()
-// );
\ No newline at end of file
+// schema และ index อยู่ใน src/main/resources/db/migration (Flyway)
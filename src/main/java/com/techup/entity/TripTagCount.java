@@ -0,0 +1,22 @@
+package com.techup.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// จำนวนทริปต่อ tag (aggregate ที่อัปเดตทีละส่วนตอนสร้าง/แก้ไข/ลบทริป) ใช้ตอบ tag facet
+@Entity
+@Table(name = "trip_tag_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TripTagCount {
+
+    @Id
+    @Column(columnDefinition = "TEXT")
+    private String tag;
+
+    @Column(name = "trip_count", nullable = false)
+    private long tripCount;
+}
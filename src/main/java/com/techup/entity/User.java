@@ -27,6 +27,10 @@ public class User {
     @Column(name = "display_name", length = 100)
     private String displayName;
 
+    // จำนวนทริปของผู้ใช้ ดูแลโดย TripService ตอนสร้าง/ลบทริป (UserRepository.incrementTripCount)
+    @Column(name = "trip_count", nullable = false, insertable = false, updatable = false)
+    private long tripCount;
+
     @Column(name = "created_at", updatable = false)
     private OffsetDateTime createdAt;
 
@@ -37,12 +41,3 @@ public class User {
         }
     }
 }
-
-// -- ตารางผู้ใช้
-// CREATE TABLE users (
-//   id BIGSERIAL PRIMARY KEY,
-//   email VARCHAR(255) UNIQUE NOT NULL,
-//   password_hash TEXT NOT NULL,
-//   display_name VARCHAR(100),
-//   created_at TIMESTAMPTZ DEFAULT NOW()
-// );
\ No newline at end of file
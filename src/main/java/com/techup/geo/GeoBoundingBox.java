@@ -0,0 +1,37 @@
+package com.techup.geo;
+
+/**
+ * กรอบสี่เหลี่ยม lat/lng ที่ครอบวงกลมรัศมี radiusKm รอบจุดกลาง
+ * ใช้กรองแถวผ่าน index (latitude, longitude) ก่อนคำนวณระยะจริงด้วย Haversine
+ */
+public record GeoBoundingBox(double minLat, double maxLat, double minLng, double maxLng) {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    public static GeoBoundingBox around(double latitude, double longitude, double radiusKm) {
+        double deltaLat = Math.toDegrees(radiusKm / EARTH_RADIUS_KM);
+        double minLat = latitude - deltaLat;
+        double maxLat = latitude + deltaLat;
+
+        // ใกล้ขั้วโลกหรือข้ามเส้น 180 องศา: ไม่จำกัด longitude
+        if (minLat <= -90 || maxLat >= 90) {
+            return new GeoBoundingBox(Math.max(minLat, -90), Math.min(maxLat, 90), -180, 180);
+        }
+
+        double deltaLng = Math.toDegrees(radiusKm / (EARTH_RADIUS_KM * Math.cos(Math.toRadians(latitude))));
+        double minLng = longitude - deltaLng;
+        double maxLng = longitude + deltaLng;
+        if (minLng < -180 || maxLng > 180) {
+            return new GeoBoundingBox(minLat, maxLat, -180, 180);
+        }
+        return new GeoBoundingBox(minLat, maxLat, minLng, maxLng);
+    }
+
+    // ระยะทางบนผิวโลก (กม.) สูตรเดียวกับที่ใช้ใน TripRepository.findNearby
+    public static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double cosine = Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+            * Math.cos(Math.toRadians(lng2) - Math.toRadians(lng1))
+            + Math.sin(Math.toRadians(lat1)) * Math.sin(Math.toRadians(lat2));
+        return EARTH_RADIUS_KM * Math.acos(Math.min(1.0, cosine));
+    }
+}
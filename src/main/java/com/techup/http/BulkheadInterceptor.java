@@ -0,0 +1,43 @@
+package com.techup.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * จำกัดจำนวน call ที่ทำงานพร้อมกัน (bulkhead) เมื่อ request มาจาก virtual thread ไม่จำกัดจำนวน
+ * รอได้ไม่เกิน maxWait แล้ว fail แทนการต่อคิวไม่สิ้นสุดตอน storage ช้า
+ * Semaphore park virtual thread ได้โดยไม่ pin carrier thread (ต่างจาก synchronized)
+ */
+public class BulkheadInterceptor implements Interceptor {
+
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+
+    public BulkheadInterceptor(int maxConcurrentCalls, Duration maxWait) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrentCalls), true);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try {
+            if (!permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new IOException("Storage client is busy, too many concurrent calls");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a storage call slot");
+        }
+        try {
+            return chain.proceed(chain.request());
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.techup.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker แบบ consecutive-failure: ล้มเหลวติดกันครบ threshold จะ fail fast
+ * ทุก call เป็นเวลา openDuration แล้วปล่อยให้ลอง 1 call (half-open) ว่า storage กลับมาหรือยัง
+ * state ทั้งหมดอยู่ใน record เดียวแล้วเปลี่ยนด้วย CAS ไม่ต้อง lock
+ */
+public class CircuitBreakerInterceptor implements Interceptor {
+
+    public enum Status { CLOSED, OPEN, HALF_OPEN }
+
+    private record State(Status status, int consecutiveFailures, long openedAtNanos) {
+    }
+
+    private static final State CLOSED = new State(Status.CLOSED, 0, 0);
+
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicReference<State> state = new AtomicReference<>(CLOSED);
+
+    public CircuitBreakerInterceptor(int failureThreshold, Duration openDuration) {
+        this(failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreakerInterceptor(int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public Status status() {
+        return state.get().status();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        acquirePermission();
+        // บันทึกผลใน finally: exception ทุกชนิด (ไม่ใช่แค่ IOException) นับเป็นความล้มเหลว
+        // ไม่อย่างนั้น call ทดลองตอน HALF_OPEN ที่โยน RuntimeException จะค้าง HALF_OPEN ตลอดไป
+        boolean succeeded = false;
+        try {
+            Response response = chain.proceed(chain.request());
+            succeeded = response.code() < 500;
+            return response;
+        } finally {
+            if (succeeded) {
+                onSuccess();
+            } else {
+                onFailure();
+            }
+        }
+    }
+
+    private void acquirePermission() throws IOException {
+        while (true) {
+            State current = state.get();
+            switch (current.status()) {
+                case CLOSED:
+                    return;
+                case OPEN:
+                    if (nanoTime.getAsLong() - current.openedAtNanos() < openDurationNanos) {
+                        throw new CircuitOpenException();
+                    }
+                    // หมดเวลาเปิดวงจรแล้ว: thread แรกที่ CAS สำเร็จได้สิทธิ์ลอง call
+                    if (state.compareAndSet(current,
+                            new State(Status.HALF_OPEN, current.consecutiveFailures(), current.openedAtNanos()))) {
+                        return;
+                    }
+                    break;
+                case HALF_OPEN:
+                    throw new CircuitOpenException();
+            }
+        }
+    }
+
+    private void onSuccess() {
+        state.set(CLOSED);
+    }
+
+    private void onFailure() {
+        state.updateAndGet(current -> {
+            int failures = current.consecutiveFailures() + 1;
+            if (current.status() == Status.HALF_OPEN || failures >= failureThreshold) {
+                return new State(Status.OPEN, failures, nanoTime.getAsLong());
+            }
+            return new State(Status.CLOSED, failures, 0);
+        });
+    }
+
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException() {
+            super("Storage circuit breaker is open");
+        }
+    }
+}
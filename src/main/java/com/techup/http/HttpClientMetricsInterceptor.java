@@ -0,0 +1,71 @@
+package com.techup.http;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * วัด call ที่ค้างอยู่ (gauge) และ latency ของแต่ละ call รวม retry แล้ว (timer + histogram)
+ * และจำนวน byte ที่ส่ง/รับต่อ call (ตาม Content-Length, retry ไม่นับซ้ำ) เป็น .request.size / .response.size
+ * tag เฉพาะ method/outcome/status ไม่ใส่ URI เพราะ path ของไฟล์ไม่ซ้ำกัน
+ */
+public class HttpClientMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry registry;
+    private final String name;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public HttpClientMetricsInterceptor(MeterRegistry registry, String name) {
+        this.registry = registry;
+        this.name = name;
+        registry.gauge(name + ".in.flight", inFlight);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (request.body() != null) {
+            recordSize(name + ".request.size", request.method(), request.body().contentLength());
+        }
+        Timer.Sample sample = Timer.start(registry);
+        inFlight.incrementAndGet();
+        String outcome = "IO_ERROR";
+        String status = "IO_ERROR";
+        try {
+            Response response = chain.proceed(request);
+            status = String.valueOf(response.code());
+            outcome = response.isSuccessful() ? "SUCCESS"
+                : response.code() >= 500 ? "SERVER_ERROR" : "CLIENT_ERROR";
+            if (response.body() != null) {
+                recordSize(name + ".response.size", request.method(), response.body().contentLength());
+            }
+            return response;
+        } finally {
+            inFlight.decrementAndGet();
+            sample.stop(Timer.builder(name)
+                .tag("method", request.method())
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(registry));
+        }
+    }
+
+    // ขนาดไม่ทราบ (chunked = -1) ไม่บันทึก
+    private void recordSize(String meterName, String method, long bytes) {
+        if (bytes < 0) {
+            return;
+        }
+        DistributionSummary.builder(meterName)
+            .baseUnit("bytes")
+            .tag("method", method)
+            .register(registry)
+            .record(bytes);
+    }
+}
@@ -0,0 +1,80 @@
+package com.techup.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry เมื่อ network error หรือ storage ตอบ 429/5xx ชั่วคราว
+ * รอแบบ exponential backoff + full jitter กันทุก client retry พร้อมกัน
+ * retry เฉพาะ request ที่ส่งซ้ำแล้วผลเหมือนเดิม: method idempotent หรือ POST ที่มี x-upsert: true
+ * (POST upload ธรรมดาที่ครั้งแรกสำเร็จแต่ response หาย ส่งซ้ำจะได้ 400 Duplicate)
+ * และ body ต้องส่งซ้ำได้ (ไม่ใช่ one-shot)
+ */
+public class RetryInterceptor implements Interceptor {
+
+    // header ของ Supabase Storage: upload ทับ object เดิมแทนที่จะตอบ Duplicate
+    public static final String UPSERT_HEADER = "x-upsert";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "PUT", "DELETE", "OPTIONS");
+
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public RetryInterceptor(int maxAttempts, Duration initialBackoff, Duration maxBackoff) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoff.toMillis();
+        this.maxBackoffMs = maxBackoff.toMillis();
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        boolean repeatable = isIdempotent(chain.request())
+            && (chain.request().body() == null || !chain.request().body().isOneShot());
+        for (int attempt = 1; ; attempt++) {
+            boolean lastAttempt = attempt >= maxAttempts || !repeatable || chain.call().isCanceled();
+            Response response;
+            try {
+                response = chain.proceed(chain.request());
+            } catch (IOException e) {
+                if (lastAttempt) {
+                    throw e;
+                }
+                sleep(attempt);
+                continue;
+            }
+            if (lastAttempt || !isRetryable(response.code())) {
+                return response;
+            }
+            response.close();
+            sleep(attempt);
+        }
+    }
+
+    static boolean isIdempotent(Request request) {
+        return IDEMPOTENT_METHODS.contains(request.method())
+            || "true".equalsIgnoreCase(request.header(UPSERT_HEADER));
+    }
+
+    static boolean isRetryable(int code) {
+        return code == 429 || code == 500 || code == 502 || code == 503 || code == 504;
+    }
+
+    private void sleep(int attempt) throws InterruptedIOException {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting to retry");
+        }
+    }
+}
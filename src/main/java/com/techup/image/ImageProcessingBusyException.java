@@ -0,0 +1,9 @@
+package com.techup.image;
+
+// คิวของ imageProcessingExecutor เต็ม (ตอบ 503 พร้อม Retry-After ไม่ใช่ 500)
+public class ImageProcessingBusyException extends RuntimeException {
+
+    public ImageProcessingBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,189 @@
+package com.techup.image;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * ย่อรูปตอนอัพโหลดเป็นหลายขนาด (full / medium / thumb) แล้ว encode ใหม่เป็น JPEG
+ * การ encode ใหม่โดยไม่ copy metadata ทำให้ EXIF (รวมถึงพิกัด GPS) ถูกตัดทิ้ง
+ * งานใช้ CPU/heap สูงจึงรันบน imageProcessingExecutor ที่จำกัดจำนวน thread และคิว
+ * pool นี้จำกัดจำนวนรูปที่ decode พร้อมกันเท่านั้น thread ที่เรียก process ยังรอผลจนเสร็จ
+ * (งานยังอยู่ใน request: request อัพโหลดจะตอบหลังย่อรูปและอัพโหลดครบ)
+ */
+@Component
+public class ImageProcessor {
+
+    // ชนิดที่ ImageIO ของ JDK decode ได้ (ไม่มี WebP) ต้องตรงกับ TripPhotoValidator.ALLOWED_TYPES
+    private static final Set<String> PROCESSABLE_TYPES = Set.of("image/jpeg", "image/jpg", "image/png");
+
+    private static final List<ImageVariant> VARIANTS =
+        List.of(ImageVariant.FULL, ImageVariant.MEDIUM, ImageVariant.THUMB);
+
+    private final ExecutorService imageProcessingExecutor;
+    private final long maxPixels;
+
+    public ImageProcessor(ExecutorService imageProcessingExecutor,
+                          @Value("${trip.image.max-pixels:40000000}") long maxPixels) {
+        this.imageProcessingExecutor = imageProcessingExecutor;
+        this.maxPixels = maxPixels;
+    }
+
+    public boolean canProcess(String contentType) {
+        return contentType != null && PROCESSABLE_TYPES.contains(contentType);
+    }
+
+    public ProcessedImage process(MultipartFile file) throws IOException {
+        Future<ProcessedImage> result;
+        try {
+            result = imageProcessingExecutor.submit(() -> render(file));
+        } catch (RejectedExecutionException e) {
+            throw new ImageProcessingBusyException("ระบบกำลังประมวลผลรูปภาพจำนวนมาก กรุณาลองใหม่อีกครั้ง", e);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while processing image", e);
+        }
+    }
+
+    ProcessedImage render(MultipartFile file) throws IOException {
+        BufferedImage image = toRgb(read(file));
+
+        Map<String, byte[]> variants = new LinkedHashMap<>();
+        // ย่อจากขนาดใหญ่ไปเล็ก ใช้ผลของขนาดก่อนหน้าเป็นต้นฉบับของขนาดถัดไป
+        for (ImageVariant variant : VARIANTS) {
+            image = scaleDown(image, variant.maxEdge());
+            variants.put(variant.name(), encodeJpeg(image, variant.quality()));
+        }
+        return new ProcessedImage(variants);
+    }
+
+    private BufferedImage read(MultipartFile file) throws IOException {
+        try (InputStream input = file.getInputStream();
+             ImageInputStream stream = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = stream != null ? ImageIO.getImageReaders(stream) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IllegalArgumentException("ไม่สามารถอ่านไฟล์รูปภาพ: " + file.getOriginalFilename());
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // ตรวจขนาดจาก header ก่อน decode กันรูปที่ขยายแล้วใช้ heap เกิน
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("รูปภาพมีความละเอียดเกินกำหนด: " + file.getOriginalFilename());
+                }
+                // รูปใหญ่กว่า full หลายเท่า ให้ decoder ข้าม pixel ไปเลยแทนการ decode เต็มแล้วค่อยย่อ
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / ImageVariant.FULL.maxEdge());
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } catch (IIOException e) {
+                throw new IllegalArgumentException("ไม่สามารถอ่านไฟล์รูปภาพ: " + file.getOriginalFilename(), e);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // JPEG ไม่มี alpha: วางบนพื้นขาว
+    private static BufferedImage toRgb(BufferedImage source) {
+        if (source.getType() == BufferedImage.TYPE_INT_RGB) {
+            return source;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+            g.drawImage(source, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    // ย่อทีละครึ่งจนใกล้ขนาดเป้าหมาย (bilinear ทีละขั้นคมกว่าย่อครั้งเดียว)
+    private static BufferedImage scaleDown(BufferedImage image, int maxEdge) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (Math.max(width, height) <= maxEdge) {
+            return image;
+        }
+        double ratio = (double) maxEdge / Math.max(width, height);
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = image;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(output)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            // ไม่ส่ง metadata = ไม่มี EXIF ในไฟล์ผลลัพธ์
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return output.toByteArray();
+    }
+}
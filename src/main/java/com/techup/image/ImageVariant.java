@@ -0,0 +1,12 @@
+package com.techup.image;
+
+/**
+ * ขนาดรูปที่สร้างตอนอัพโหลด (ด้านยาวสุดไม่เกิน maxEdge px)
+ */
+public record ImageVariant(String name, int maxEdge, float quality) {
+
+    // แทนไฟล์ต้นฉบับ (URL ใน photos[])
+    public static final ImageVariant FULL = new ImageVariant("full", 2048, 0.85f);
+    public static final ImageVariant MEDIUM = new ImageVariant("medium", 1080, 0.80f);
+    public static final ImageVariant THUMB = new ImageVariant("thumb", 320, 0.75f);
+}
@@ -0,0 +1,12 @@
+package com.techup.image;
+
+import java.util.Map;
+
+/**
+ * ผลจาก ImageProcessor: JPEG ของแต่ละขนาด (ไม่มี EXIF/metadata) key = ImageVariant.name()
+ */
+public record ProcessedImage(Map<String, byte[]> variants) {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+    public static final String EXTENSION = ".jpg";
+}
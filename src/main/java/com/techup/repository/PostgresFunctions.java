@@ -0,0 +1,36 @@
+package com.techup.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * ฟังก์ชัน HQL เฉพาะ PostgreSQL ที่ใช้ใน TripRepository (ลงทะเบียนผ่าน META-INF/services)
+ *
+ * fts_match(vector, query)    -> vector @@ to_tsquery('simple', query)
+ * fts_rank(vector, query)     -> ts_rank(vector, to_tsquery('simple', query))
+ * tags_contain_all(tags, arr) -> tags @> arr::text[]  (GIN index)
+ * tags_overlap(tags, arr)     -> tags && arr::text[]  (GIN index)
+ *
+ * cast เป็น text[] เพราะ parameter String[] ถูก bind เป็น varchar[] ซึ่งใช้กับ operator ของ text[] ไม่ได้
+ */
+public class PostgresFunctions implements FunctionContributor {
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+            .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Float> floatType = functionContributions.getTypeConfiguration()
+            .getBasicTypeRegistry().resolve(StandardBasicTypes.FLOAT);
+
+        functionContributions.getFunctionRegistry().registerPattern(
+            "fts_match", "(?1 @@ to_tsquery('simple', ?2))", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(
+            "fts_rank", "ts_rank(?1, to_tsquery('simple', ?2))", floatType);
+        functionContributions.getFunctionRegistry().registerPattern(
+            "tags_contain_all", "(?1 @> cast(?2 as text[]))", booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(
+            "tags_overlap", "(?1 && cast(?2 as text[]))", booleanType);
+    }
+}
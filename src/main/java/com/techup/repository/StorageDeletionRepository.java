@@ -0,0 +1,24 @@
+package com.techup.repository;
+
+import com.techup.entity.StorageDeletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+
+    // งานที่ถึงเวลาทำ ล็อกแถวแบบ SKIP LOCKED ให้ worker หลาย instance แบ่งงานกันได้ไม่ชนกัน
+    // งานที่ล้มเหลวถาวร (failed_at) ไม่ถูกหยิบอีก
+    @Query(value = "SELECT * FROM storage_deletions WHERE next_attempt_at <= :now AND failed_at IS NULL " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<StorageDeletion> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // จำนวนงานที่ล้มเหลวถาวร (metric storage.deletion.failed)
+    long countByFailedAtIsNotNull();
+}
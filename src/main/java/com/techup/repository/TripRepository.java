@@ -1,54 +1,145 @@
 package com.techup.repository;
 
+import com.techup.dto.TripResponse;
 import com.techup.entity.Trip;  
+import com.techup.search.TripSearchDocument;
+import com.techup.search.TripSearchSource;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.lang.NonNull;  // เพิ่มบรรทัดนี้
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TripRepository extends JpaRepository<Trip, Long> { 
+
+    // Projection ตรงไปที่ TripResponse: อ่าน author_id จาก FK ไม่ join/โหลด users
+    String SELECT_RESPONSE = "SELECT new com.techup.dto.TripResponse(" +
+           "t.id, t.title, t.description, t.photos, t.photoVariants, t.tags, t.latitude, t.longitude, " +
+           "t.author.id, t.createdAt, t.updatedAt) FROM Trip t ";
     
     // Override save() เพื่อบังคับ @NonNull
     @NonNull
     @Override
     <S extends Trip> S save(@NonNull S entity);
     
-    // หาทริปตาม author_id
-    List<Trip> findByAuthorId(Long authorId);
+    // หน้าแรกของ feed (keyset pagination เรียงตาม created_at, id ใหม่สุดก่อน)
+    @Query(SELECT_RESPONSE + "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TripResponse> findFeedFirstPage(Pageable pageable);
+
+    // หน้าถัดไปของ feed ต่อจาก cursor (created_at, id) โดยไม่ใช้ OFFSET
+    @Query(SELECT_RESPONSE + "WHERE t.createdAt < :createdAt OR " +
+           "(t.createdAt = :createdAt AND t.id < :id) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TripResponse> findFeedPageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // รายละเอียดทริปแบบ projection (1 query)
+    @Query(SELECT_RESPONSE + "WHERE t.id = :id")
+    Optional<TripResponse> findResponseById(@Param("id") Long id);
+
+    // เวอร์ชันของรายละเอียดทริป (ETag / Last-Modified) อ่านคอลัมน์เดียว ไม่โหลด entity
+    @Query("SELECT t.updatedAt FROM Trip t WHERE t.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // เวอร์ชันของรายการทริปจาก sequence: nextval ไม่ lock แถวใดและไม่ rollback
+    // writer จึงไม่ต่อคิวกันที่แถวเดียว (ดู TripListVersion)
+    @Query(value = "SELECT last_value FROM trip_list_version_seq", nativeQuery = true)
+    long findListVersion();
+
+    @Query(value = "SELECT nextval('trip_list_version_seq')", nativeQuery = true)
+    long nextListVersion();
+
+    // export ทุกทริปเรียงตาม id ต่อจาก afterId (resume ได้) อ่านผ่าน cursor ของ JDBC ทีละ fetch size
+    // projection ไม่สร้าง entity จึงไม่มีอะไรสะสมใน persistence context ต้องเรียกใน transaction และปิด Stream เสมอ
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(SELECT_RESPONSE + "WHERE t.id > :afterId ORDER BY t.id")
+    Stream<TripResponse> streamAllAfter(@Param("afterId") long afterId);
+
+    // ล็อกแถวไว้จนจบ transaction กันสอง request แก้ array photos ทับกัน
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Trip t WHERE t.id = :id")
+    Optional<Trip> findByIdForUpdate(@Param("id") Long id);
+
+    // ทริปของผู้ใช้ หน้าแรก (keyset pagination ใช้ idx_trips_author_created_at_id)
+    @Query(SELECT_RESPONSE + "WHERE t.author.id = :authorId ORDER BY t.createdAt DESC, t.id DESC")
+    List<TripResponse> findAuthorFirstPage(@Param("authorId") Long authorId, Pageable pageable);
+
+    // ทริปของผู้ใช้ หน้าถัดไปต่อจาก cursor (created_at, id)
+    @Query(SELECT_RESPONSE + "WHERE t.author.id = :authorId AND (t.createdAt < :createdAt OR " +
+           "(t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TripResponse> findAuthorPageAfter(@Param("authorId") Long authorId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
     
     // หาทริปที่มี title ตรงกัน (ค้นหาแบบไม่สนใจตัวพิมพ์)
     List<Trip> findByTitleContainingIgnoreCase(String title);
     
     
-    // ค้นหาทริปที่มี tag นี้ (PostgreSQL array operator)
-    @Query(value = "SELECT * FROM trips WHERE :tag = ANY(tags)", nativeQuery = true)
-    List<Trip> findByTag(@Param("tag") String tag);
-    
-    // ค้นหาจาก title หรือ description
-    @Query("SELECT t FROM Trip t WHERE " +
-           "LOWER(t.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Trip> searchByKeyword(@Param("keyword") String keyword);
-    
-    // หาทริปใกล้เคียง (ในรัศมีที่กำหนด) - ใช้ Haversine formula
-    @Query(value = "SELECT * FROM trips WHERE " +
-           "6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
-           "cos(radians(longitude) - radians(:lng)) + sin(radians(:lat)) * " +
-           "sin(radians(latitude))) <= :radius " +
-           "AND latitude IS NOT NULL AND longitude IS NOT NULL", 
-           nativeQuery = true)
-    List<Trip> findNearby(@Param("lat") double latitude, 
-                          @Param("lng") double longitude, 
-                          @Param("radius") double radiusInKm);
+    // ทริปที่มีครบทุก tag (tags @> :tags) ใช้ GIN index idx_trips_tags ได้
+    @Query(SELECT_RESPONSE + "WHERE tags_contain_all(t.tags, :tags) = true " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TripResponse> findByAllTags(@Param("tags") String[] tags, Pageable pageable);
+
+    // ทริปที่มี tag ใด tag หนึ่ง (tags && :tags) ใช้ GIN index idx_trips_tags ได้
+    @Query(SELECT_RESPONSE + "WHERE tags_overlap(t.tags, :tags) = true " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TripResponse> findByAnyTags(@Param("tags") String[] tags, Pageable pageable);
     
-    // หาทริปที่สร้างโดย author (ใช้ email)
-    @Query("SELECT t FROM Trip t WHERE t.author.email = :email")
-    List<Trip> findByAuthorEmail(@Param("email") String email);
+    // Full-text search บน search_vector (GIN index) เรียงตาม ts_rank
+    // query อยู่ในรูป tsquery แล้ว (ดู ThaiTextTokenizer.toTsQuery)
+    @Query(SELECT_RESPONSE + "WHERE fts_match(t.searchVector, :query) = true " +
+           "ORDER BY fts_rank(t.searchVector, :query) DESC, t.id DESC")
+    List<TripResponse> searchFullText(@Param("query") String tsQuery, Pageable pageable);
+
+    @Query(SELECT_RESPONSE + "WHERE t.id IN :ids")
+    List<TripResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.techup.search.TripSearchDocument(t.id, t.searchText) FROM Trip t")
+    List<TripSearchDocument> findSearchDocuments();
+
+    @Query("SELECT new com.techup.search.TripSearchSource(t.id, t.title, t.description, t.tags) " +
+           "FROM Trip t WHERE t.searchText IS NULL")
+    List<TripSearchSource> findSearchSourcesMissingText(Pageable pageable);
+
+    // อัปเดตตรงๆ ไม่ผ่าน @PreUpdate (updated_at ไม่เปลี่ยน)
+    @Modifying
+    @Query("UPDATE Trip t SET t.searchText = :searchText WHERE t.id = :id")
+    void updateSearchText(@Param("id") Long id, @Param("searchText") String searchText);
     
-    // นับจำนวนทริปของ author
-    long countByAuthorId(Long authorId);
+    // ระยะทาง (กม.) จากจุด (:lat, :lng) ด้วย Haversine, least() กัน acos เกิน 1 จาก floating point
+    String DISTANCE_KM = "6371 * acos(least(1.0, cos(radians(:lat)) * cos(radians(t.latitude)) * " +
+           "cos(radians(t.longitude) - radians(:lng)) + sin(radians(:lat)) * " +
+           "sin(radians(t.latitude))))";
+
+    // หาทริปใกล้เคียง: กรองด้วย bounding box ผ่าน idx_trips_lat_lng ก่อน
+    // แล้วค่อยคำนวณระยะจริงเฉพาะแถวในกรอบ เรียงจากใกล้ไปไกล (k-nearest + paging ผ่าน Pageable)
+    @Query(SELECT_RESPONSE + "WHERE t.latitude BETWEEN :minLat AND :maxLat " +
+           "AND t.longitude BETWEEN :minLng AND :maxLng " +
+           "AND " + DISTANCE_KM + " <= :radius " +
+           "ORDER BY " + DISTANCE_KM + ", t.id")
+    List<TripResponse> findNearby(@Param("lat") double latitude,
+                                  @Param("lng") double longitude,
+                                  @Param("radius") double radiusInKm,
+                                  @Param("minLat") double minLatitude,
+                                  @Param("maxLat") double maxLatitude,
+                                  @Param("minLng") double minLongitude,
+                                  @Param("maxLng") double maxLongitude,
+                                  Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,47 @@
+package com.techup.repository;
+
+import com.techup.dto.TagCountResponse;
+import com.techup.entity.TripTagCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TripTagCountRepository extends JpaRepository<TripTagCount, String> {
+
+    // tag ยอดนิยม (ไม่นับ tag ที่ไม่มีทริปเหลือแล้ว)
+    @Query("SELECT new com.techup.dto.TagCountResponse(c.tag, c.tripCount) FROM TripTagCount c " +
+           "WHERE c.tripCount > 0 ORDER BY c.tripCount DESC, c.tag")
+    List<TagCountResponse> findTopTags(Pageable pageable);
+
+    // เพิ่มจำนวนแบบ atomic ในแถวเดียว (upsert) ใช้กับ delta > 0 เท่านั้น
+    @Modifying
+    @Query(value = "INSERT INTO trip_tag_counts (tag, trip_count) VALUES (:tag, :delta) " +
+                   "ON CONFLICT (tag) DO UPDATE SET trip_count = trip_tag_counts.trip_count + EXCLUDED.trip_count",
+           nativeQuery = true)
+    void increment(@Param("tag") String tag, @Param("delta") long delta);
+
+    // ลดจำนวนโดยไม่ต่ำกว่า 0 และไม่สร้างแถวใหม่ (tag ที่ไม่มีแถวอยู่แล้วไม่ต้องลด)
+    @Modifying
+    @Query(value = "UPDATE trip_tag_counts SET trip_count = GREATEST(trip_count - :amount, 0) WHERE tag = :tag",
+           nativeQuery = true)
+    void decrement(@Param("tag") String tag, @Param("amount") long amount);
+
+    // tag ที่ไม่มีทริปเหลือแล้ว (เรียกหลัง decrement ใน transaction เดียวกัน แถวยังถูก lock อยู่)
+    @Modifying
+    @Query(value = "DELETE FROM trip_tag_counts WHERE tag = :tag AND trip_count <= 0", nativeQuery = true)
+    void deleteIfEmpty(@Param("tag") String tag);
+
+    // คำนวณใหม่ทั้งหมดจากตาราง trips (ใช้ครั้งแรกตอนตารางยังว่าง)
+    @Modifying
+    @Query(value = "INSERT INTO trip_tag_counts (tag, trip_count) " +
+                   "SELECT tag, COUNT(DISTINCT t.id) FROM trips t, unnest(t.tags) AS tag GROUP BY tag " +
+                   "ON CONFLICT (tag) DO UPDATE SET trip_count = EXCLUDED.trip_count",
+           nativeQuery = true)
+    void rebuild();
+}
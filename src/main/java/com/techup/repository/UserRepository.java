@@ -1,12 +1,48 @@
 package com.techup.repository;
 import com.techup.entity.User;
+import com.techup.security.UserCredentials;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // login: อ่านเฉพาะคอลัมน์ที่ต้องใช้ ไม่สร้าง entity ใน persistence context
+    @Query("SELECT new com.techup.security.UserCredentials(u.id, u.email, u.passwordHash, u.displayName, u.createdAt) " +
+           "FROM User u WHERE u.email = :email")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    // register ด้วย INSERT เดียว: email ซ้ำ (unique constraint) ได้ค่าว่างแทน exception ไม่มี race ระหว่างตรวจกับ insert
+    @Transactional
+    @Query(value = "INSERT INTO users (email, password_hash, display_name, created_at) " +
+                   "VALUES (:email, :passwordHash, :displayName, :createdAt) " +
+                   "ON CONFLICT (email) DO NOTHING RETURNING id", nativeQuery = true)
+    Optional<Long> insertIfEmailAbsent(@Param("email") String email,
+                                       @Param("passwordHash") String passwordHash,
+                                       @Param("displayName") String displayName,
+                                       @Param("createdAt") OffsetDateTime createdAt);
+
+    // จำนวนทริปจาก users.trip_count (ไม่ COUNT จากตาราง trips)
+    @Query("SELECT u.tripCount FROM User u WHERE u.id = :id")
+    Optional<Long> findTripCountById(@Param("id") Long id);
+
+    // เพิ่ม/ลดแบบ atomic ในแถวเดียว ใน transaction เดียวกับการสร้าง/ลบทริป
+    @Modifying
+    @Query("UPDATE User u SET u.tripCount = u.tripCount + :delta WHERE u.id = :id")
+    void incrementTripCount(@Param("id") Long id, @Param("delta") long delta);
+
+    // hash ใหม่ตอน login (cost เดิมต่ำกว่าค่าปัจจุบัน) อัปเดตคอลัมน์เดียว
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.passwordHash = :passwordHash WHERE u.id = :id")
+    void updatePasswordHash(@Param("id") Long id, @Param("passwordHash") String passwordHash);
 }
 
 
@@ -0,0 +1,102 @@
+package com.techup.search;
+
+import com.techup.dto.TripResponse;
+import com.techup.entity.Trip;
+import com.techup.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Fallback แบบ in-process สำหรับ test/ฐานข้อมูลที่ไม่มี tsvector
+ * โหลด search_text ทั้งหมดครั้งแรกที่ค้นหา แล้วอัปเดตตาม index/remove
+ */
+@Component
+@ConditionalOnProperty(name = "trip.search.engine", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryTripSearchEngine implements TripSearchEngine {
+
+    private final TripRepository tripRepository;
+
+    private final Map<Long, List<String>> documents = new ConcurrentHashMap<>();
+    private final ReentrantLock loadLock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    @Override
+    public List<TripResponse> search(String keyword, int page, int size) {
+        Set<String> queryTokens = new LinkedHashSet<>(ThaiTextTokenizer.tokenize(keyword));
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+        ensureLoaded();
+
+        // คะแนน = จำนวนครั้งที่คำค้นตรงกับคำในทริป (ต้องตรงครบทุกคำ แบบ prefix)
+        Map<Long, Integer> scores = new ConcurrentHashMap<>();
+        documents.forEach((id, tokens) -> {
+            int score = 0;
+            for (String queryToken : queryTokens) {
+                int hits = (int) tokens.stream().filter(token -> token.startsWith(queryToken)).count();
+                if (hits == 0) {
+                    return;
+                }
+                score += hits;
+            }
+            scores.put(id, score);
+        });
+
+        List<Long> ids = scores.entrySet().stream()
+            .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())))
+            .skip((long) page * size)
+            .limit(size)
+            .map(Map.Entry::getKey)
+            .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, TripResponse> byId = tripRepository.findResponsesByIdIn(ids).stream()
+            .collect(Collectors.toMap(TripResponse::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(response -> response != null).toList();
+    }
+
+    @Override
+    public void index(Trip trip) {
+        documents.put(trip.getId(), ThaiTextTokenizer.tokenize(
+            ThaiTextTokenizer.searchTextOf(trip.getTitle(), trip.getDescription(), trip.getTags())));
+    }
+
+    @Override
+    public void remove(Long tripId) {
+        documents.remove(tripId);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loadLock.lock();
+        try {
+            if (!loaded) {
+                for (TripSearchDocument document : tripRepository.findSearchDocuments()) {
+                    String text = document.searchText() != null ? document.searchText() : "";
+                    documents.putIfAbsent(document.id(), Arrays.asList(text.split(" ")));
+                }
+                loaded = true;
+            }
+        } finally {
+            loadLock.unlock();
+        }
+    }
+}
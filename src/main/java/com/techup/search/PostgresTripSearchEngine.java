@@ -0,0 +1,31 @@
+package com.techup.search;
+
+import com.techup.dto.TripResponse;
+import com.techup.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ค้นหาผ่าน trips.search_vector (tsvector generated column + GIN index)
+ * search_vector คำนวณจาก search_text ใน PostgreSQL เองทุกครั้งที่เขียน จึงไม่ต้องทำอะไรใน index/remove
+ */
+@Component
+@ConditionalOnProperty(name = "trip.search.engine", havingValue = "postgres", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PostgresTripSearchEngine implements TripSearchEngine {
+
+    private final TripRepository tripRepository;
+
+    @Override
+    public List<TripResponse> search(String keyword, int page, int size) {
+        String query = ThaiTextTokenizer.toTsQuery(keyword);
+        if (query == null) {
+            return List.of();
+        }
+        return tripRepository.searchFullText(query, PageRequest.of(page, size));
+    }
+}
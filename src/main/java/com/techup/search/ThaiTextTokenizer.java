@@ -0,0 +1,87 @@
+package com.techup.search;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * ตัดคำสำหรับ full-text search
+ * ภาษาไทยไม่มีช่องว่างระหว่างคำ จึงใช้ BreakIterator (dictionary ภาษาไทยของ JDK)
+ * ตัดคำก่อนส่งให้ PostgreSQL ซึ่งตัดคำด้วยช่องว่างอย่างเดียว
+ */
+public final class ThaiTextTokenizer {
+
+    private static final Locale THAI = Locale.forLanguageTag("th-TH");
+
+    private ThaiTextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        // BreakIterator ไม่ thread-safe สร้างใหม่ทุกครั้ง
+        BreakIterator words = BreakIterator.getWordInstance(THAI);
+        words.setText(text);
+
+        int start = words.first();
+        for (int end = words.next(); end != BreakIterator.DONE; start = end, end = words.next()) {
+            String token = normalize(text.substring(start, end));
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    // ข้อความที่ตัดคำแล้วคั่นด้วยช่องว่าง เก็บลงคอลัมน์ trips.search_text
+    public static String searchTextOf(String title, String description, String[] tags) {
+        StringBuilder text = new StringBuilder();
+        append(text, title);
+        append(text, description);
+        if (tags != null) {
+            for (String tag : tags) {
+                append(text, tag);
+            }
+        }
+        return text.toString();
+    }
+
+    // แปลงคำค้นเป็น tsquery: ทุกคำต้องตรง (AND) และให้ตรงแบบ prefix
+    public static String toTsQuery(String keyword) {
+        Set<String> tokens = new LinkedHashSet<>(tokenize(keyword));
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        return String.join(" & ", tokens.stream().map(token -> token + ":*").toList());
+    }
+
+    private static void append(StringBuilder text, String value) {
+        for (String token : tokenize(value)) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(token);
+        }
+    }
+
+    // เก็บเฉพาะตัวอักษร ตัวเลข และสระ/วรรณยุกต์ไทย (combining mark) ตัดเครื่องหมายวรรคตอนทิ้ง
+    // ทำให้ token ใช้ใน tsquery ได้โดยไม่ต้อง escape
+    private static String normalize(String raw) {
+        StringBuilder token = new StringBuilder(raw.length());
+        raw.toLowerCase(Locale.ROOT).codePoints().forEach(cp -> {
+            int type = Character.getType(cp);
+            if (Character.isLetterOrDigit(cp)
+                    || type == Character.NON_SPACING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                token.appendCodePoint(cp);
+            }
+        });
+        return token.toString();
+    }
+}
@@ -0,0 +1,5 @@
+package com.techup.search;
+
+// id + ข้อความที่ตัดคำแล้วของทริป (ใช้ใน InMemoryTripSearchEngine)
+public record TripSearchDocument(Long id, String searchText) {
+}
@@ -0,0 +1,23 @@
+package com.techup.search;
+
+import com.techup.dto.TripResponse;
+import com.techup.entity.Trip;
+
+import java.util.List;
+
+/**
+ * ค้นหาทริปแบบ full-text เรียงตามความเกี่ยวข้อง
+ * เลือก implementation ด้วย trip.search.engine (postgres | memory)
+ */
+public interface TripSearchEngine {
+
+    List<TripResponse> search(String keyword, int page, int size);
+
+    // เรียกหลังสร้าง/แก้ไขทริป
+    default void index(Trip trip) {
+    }
+
+    // เรียกหลังลบทริป
+    default void remove(Long tripId) {
+    }
+}
@@ -0,0 +1,5 @@
+package com.techup.search;
+
+// ฟิลด์ต้นทางที่ใช้สร้าง search_text
+public record TripSearchSource(Long id, String title, String description, String[] tags) {
+}
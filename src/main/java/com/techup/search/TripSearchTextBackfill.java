@@ -0,0 +1,50 @@
+package com.techup.search;
+
+import com.techup.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * เติม search_text ให้ทริปเก่าที่สร้างก่อนมี full-text search (search_text IS NULL)
+ * ทำเป็น batch ตอน start และอัปเดตตรงๆ ไม่ผ่าน @PreUpdate เพื่อไม่ให้ updated_at เปลี่ยน
+ */
+@Component
+@RequiredArgsConstructor
+public class TripSearchTextBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(TripSearchTextBackfill.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final TripRepository tripRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        Integer updated;
+        do {
+            updated = transactionTemplate.execute(status -> {
+                List<TripSearchSource> batch =
+                    tripRepository.findSearchSourcesMissingText(PageRequest.of(0, BATCH_SIZE));
+                for (TripSearchSource source : batch) {
+                    tripRepository.updateSearchText(source.id(), ThaiTextTokenizer.searchTextOf(
+                        source.title(), source.description(), source.tags()));
+                }
+                return batch.size();
+            });
+            total += updated != null ? updated : 0;
+        } while (updated != null && updated == BATCH_SIZE);
+
+        if (total > 0) {
+            log.info("Backfilled search_text for {} trips", total);
+        }
+    }
+}
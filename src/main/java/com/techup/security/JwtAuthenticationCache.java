@@ -0,0 +1,94 @@
+package com.techup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Cache ผลการยืนยัน JWT (claims + UserDetails) โดยใช้ SHA-256 ของ token เป็น key
+ * request ที่ใช้ token เดิมซ้ำจึงไม่ต้อง verify ลายเซ็นและไม่ต้อง query ตาราง users
+ * entry หมดอายุไม่เกินเวลาหมดอายุของ token และไม่เกิน jwt.auth-cache.ttl
+ */
+@Component
+public class JwtAuthenticationCache {
+
+    public record CachedAuthentication(Long userId, UserDetails userDetails, Instant expiresAt, String keyId) {
+    }
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final Cache<String, CachedAuthentication> cache;
+
+    public JwtAuthenticationCache(
+            JwtService jwtService,
+            @Lazy UserDetailsService userDetailsService,
+            @Value("${jwt.auth-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.auth-cache.ttl:5m}") Duration maxTtl) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, CachedAuthentication>() {
+                @Override
+                public long expireAfterCreate(String key, CachedAuthentication value, long currentTime) {
+                    Duration untilExpiry = Duration.between(Instant.now(), value.expiresAt());
+                    return Math.max(0, Math.min(untilExpiry.toNanos(), maxTtl.toNanos()));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, CachedAuthentication value,
+                                              long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, CachedAuthentication value,
+                                            long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * คืนผลที่ cache ไว้ หรือ verify token + โหลด UserDetails แล้วเก็บลง cache
+     * token ที่ไม่ถูกต้องจะโยน exception และไม่ถูก cache
+     * entry ของ token ที่เซ็นด้วย key ที่ถูก retire แล้ว (JwtService.retire) ถูกทิ้งและปฏิเสธทันที
+     */
+    public CachedAuthentication authenticate(String token) {
+        String key = hash(token);
+        CachedAuthentication cached = cache.get(key, ignored -> {
+            VerifiedToken verified = jwtService.verify(token);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(verified.email());
+            return new CachedAuthentication(verified.userId(), userDetails, verified.expiresAt(), verified.keyId());
+        });
+        if (!jwtService.isTrusted(cached.keyId())) {
+            cache.invalidate(key);
+            throw new SignatureException("Signing key retired: " + cached.keyId());
+        }
+        return cached;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,31 +1,37 @@
 package com.techup.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.context.annotation.Lazy;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+/**
+ * ตรวจ Bearer token แล้วใส่ Authentication ลง SecurityContext
+ * เวลาที่ใช้ในตัว filter เอง (ไม่รวม controller) วัดเป็น security.jwt.filter แยกตาม outcome:
+ * skipped (path สาธารณะ), anonymous (ไม่มี token), authenticated, invalid
+ */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    public static final String METRIC_NAME = "security.jwt.filter";
+    private static final String EXPORT_PATH = "/api/trips/export";
 
-    public JwtAuthenticationFilter(
-            JwtService jwtService,
-            @Lazy UserDetailsService userDetailsService) {
-        this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+    private final JwtAuthenticationCache authenticationCache;
+    private final MeterRegistry meterRegistry;
+
+    public JwtAuthenticationFilter(JwtAuthenticationCache authenticationCache, MeterRegistry meterRegistry) {
+        this.authenticationCache = authenticationCache;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -34,47 +40,56 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = authenticate(request);
+        sample.stop(Timer.builder(METRIC_NAME)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+
+        filterChain.doFilter(request, response);
+    }
+
+    // คืน outcome สำหรับ metric
+    private String authenticate(HttpServletRequest request) {
         String path = request.getServletPath();
         String method = request.getMethod();
 
         // ⚡ ข้าม public GET request และ CORS preflight
-        if ((path.startsWith("/api/trips") && method.equals("GET")) ||
+        // (ยกเว้น /api/trips/export ที่ SecurityConfig บังคับ login ต้องอ่าน token เสมอ)
+        if ((path.startsWith("/api/trips") && method.equals("GET") && !path.startsWith(EXPORT_PATH)) ||
             (path.startsWith("/api/users") && method.equals("GET")) ||
             (path.startsWith("/api/users/register") && method.equals("POST")) ||
             (path.startsWith("/api/users/login") && method.equals("POST")) ||
             method.equals("OPTIONS")) {
-            filterChain.doFilter(request, response);
-            return;
+            return "skipped";
         }
 
         final String authHeader = request.getHeader("Authorization");
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            filterChain.doFilter(request, response);
-            return;
+            return "anonymous";
         }
 
         String jwt = authHeader.substring(7);
 
         try {
-            Long userId = jwtService.getUserId(jwt);
-            String email = jwtService.extractEmail(jwt);
-
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
+                // token เดิม: ได้จาก cache ทันที ไม่ parse JWT ซ้ำและไม่ query users
+                JwtAuthenticationCache.CachedAuthentication cached = authenticationCache.authenticate(jwt);
+                UserDetails userDetails = cached.userDetails();
 
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
 
-                authToken.setDetails(userId); // เก็บ userId ไว้ใน details
+                authToken.setDetails(cached.userId()); // เก็บ userId ไว้ใน details
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
+            return "authenticated";
 
         } catch (Exception e) {
             logger.debug("JWT token validation failed: " + e.getMessage());
+            return "invalid";
         }
-
-        filterChain.doFilter(request, response);
     }
 }
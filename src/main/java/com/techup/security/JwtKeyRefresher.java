@@ -0,0 +1,85 @@
+package com.techup.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Rotate JWT key ขณะระบบทำงานจากไฟล์ jwt.keys-file (เช่น Kubernetes Secret ที่ mount เป็นไฟล์)
+ * ไฟล์ใช้ key เดียวกับ application.properties: jwt.key-id, jwt.secret, jwt.verification-keys
+ * อ่านซ้ำทุก jwt.keys-refresh-interval-ms แล้วปรับ JwtService ให้ตรงกับไฟล์:
+ * - kid ใน jwt.verification-keys ที่ยังไม่รู้จัก: trust (verify ได้ แต่ยังไม่ใช้เซ็น)
+ * - jwt.key-id เปลี่ยน: rotate ไปใช้ key ใหม่เซ็น
+ * - kid ที่ไม่อยู่ในไฟล์แล้ว: retire (token ที่เซ็นด้วย key นั้นใช้ไม่ได้ทันที รวมถึงที่ cache ไว้)
+ * หลาย instance: ใส่ kid ใหม่ใน jwt.verification-keys ให้ทุก instance รับก่อน แล้วค่อยเปลี่ยน jwt.key-id
+ * kid ใหม่ต่อ secret ใหม่เสมอ (secret ของ kid เดิมที่เปลี่ยนในไฟล์จะไม่ถูกอ่านซ้ำ)
+ */
+@Component
+public class JwtKeyRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyRefresher.class);
+
+    private final JwtService jwtService;
+    private final String keysFile;
+
+    public JwtKeyRefresher(JwtService jwtService, @Value("${jwt.keys-file:}") String keysFile) {
+        this.jwtService = jwtService;
+        this.keysFile = keysFile;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.keys-refresh-interval-ms:60000}")
+    public void refresh() {
+        if (keysFile == null || keysFile.isBlank()) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(Path.of(keysFile), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            // ไฟล์หาย/อ่านไม่ได้ชั่วคราว (เช่นระหว่าง Secret ถูกอัปเดต): คง key ชุดเดิมไว้
+            log.warn("Cannot read JWT keys file {}: {}", keysFile, e.getMessage());
+            return;
+        }
+        apply(properties);
+    }
+
+    void apply(Properties properties) {
+        String activeKeyId = properties.getProperty("jwt.key-id", "").trim();
+        String activeSecret = properties.getProperty("jwt.secret", "").trim();
+        if (activeKeyId.isEmpty() || activeSecret.isEmpty()) {
+            log.warn("JWT keys file {} has no jwt.key-id / jwt.secret, keeping current keys", keysFile);
+            return;
+        }
+        Map<String, String> verificationKeys =
+            JwtService.parseVerificationKeys(properties.getProperty("jwt.verification-keys", ""));
+
+        Set<String> known = jwtService.keyIds();
+        verificationKeys.forEach((kid, secret) -> {
+            if (!known.contains(kid)) {
+                jwtService.trust(kid, secret);
+                log.info("JWT key {} trusted for verification", kid);
+            }
+        });
+        if (!jwtService.activeKeyId().equals(activeKeyId)) {
+            jwtService.rotate(activeKeyId, activeSecret);
+            log.info("JWT signing key rotated to {}", activeKeyId);
+        }
+        for (String kid : jwtService.keyIds()) {
+            if (!kid.equals(activeKeyId) && !verificationKeys.containsKey(kid)) {
+                jwtService.retire(kid);
+                log.info("JWT key {} retired", kid);
+            }
+        }
+    }
+}
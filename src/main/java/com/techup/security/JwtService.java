@@ -2,11 +2,19 @@ package com.techup.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class JwtService {
@@ -14,29 +22,120 @@ public class JwtService {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    // kid ของ jwt.secret (ใส่ใน header ของ token ที่ออกใหม่)
+    @Value("${jwt.key-id:default}")
+    private String keyId;
+
+    // key เก่าที่ยังรับ verify ได้ระหว่าง rotate รูปแบบ "kid:secret,kid2:secret2"
+    @Value("${jwt.verification-keys:}")
+    private String verificationKeys;
+
     @Value("${jwt.expiration}")
     private long expirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secretKey.getBytes());
+    // key ทั้งหมดสร้างครั้งเดียว แล้วสลับทั้งชุดแบบ atomic ตอน rotate
+    private final AtomicReference<KeySet> keySet = new AtomicReference<>();
+
+    // JwtParser เป็น immutable/thread-safe สร้างครั้งเดียวใช้ทุก request
+    // เลือก key ตาม kid ใน header ผ่าน keySet ปัจจุบัน
+    private JwtParser parser;
+
+    private record KeySet(String activeKeyId, Map<String, SecretKey> keys) {
+    }
+
+    @PostConstruct
+    void init() {
+        Map<String, SecretKey> keys = new LinkedHashMap<>();
+        parseVerificationKeys(verificationKeys).forEach((kid, secret) -> keys.put(kid, toKey(secret)));
+        keys.put(keyId, toKey(secretKey));
+        keySet.set(new KeySet(keyId, Map.copyOf(keys)));
+
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header.getKeyId());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Rotate key ขณะระบบทำงาน: key ใหม่ใช้เซ็น token ต่อจากนี้
+     * key เดิมทั้งหมดยังใช้ verify token ที่ออกไปแล้วได้จนกว่าจะถูก retire
+     */
+    public void rotate(String newKeyId, String newSecret) {
+        keySet.updateAndGet(current -> {
+            Map<String, SecretKey> keys = new LinkedHashMap<>(current.keys());
+            keys.put(newKeyId, toKey(newSecret));
+            return new KeySet(newKeyId, Map.copyOf(keys));
+        });
+    }
+
+    // รับ verify token ที่เซ็นด้วย key นี้โดยยังไม่ใช้เซ็น (เช่น instance อื่นเริ่มใช้ key ใหม่ก่อน)
+    public void trust(String verificationKeyId, String secret) {
+        keySet.updateAndGet(current -> {
+            if (current.activeKeyId().equals(verificationKeyId)) {
+                return current;
+            }
+            Map<String, SecretKey> keys = new LinkedHashMap<>(current.keys());
+            keys.put(verificationKeyId, toKey(secret));
+            return new KeySet(current.activeKeyId(), Map.copyOf(keys));
+        });
+    }
+
+    // เลิกรับ token ที่เซ็นด้วย key นี้ (ห้าม retire key ที่กำลังใช้เซ็น)
+    // token ที่ cache ไว้ใน JwtAuthenticationCache ถูกตรวจกับ isTrusted ทุกครั้งจึงใช้ไม่ได้ทันทีเช่นกัน
+    public void retire(String oldKeyId) {
+        keySet.updateAndGet(current -> {
+            if (current.activeKeyId().equals(oldKeyId)) {
+                throw new IllegalArgumentException("ไม่สามารถ retire key ที่กำลังใช้งาน");
+            }
+            Map<String, SecretKey> keys = new LinkedHashMap<>(current.keys());
+            keys.remove(oldKeyId);
+            return new KeySet(current.activeKeyId(), Map.copyOf(keys));
+        });
+    }
+
+    public String activeKeyId() {
+        return keySet.get().activeKeyId();
+    }
+
+    public Set<String> keyIds() {
+        return keySet.get().keys().keySet();
+    }
+
+    // kid จาก VerifiedToken ยังใช้ verify ได้อยู่หรือไม่ (false เมื่อถูก retire ไปแล้ว)
+    public boolean isTrusted(String kid) {
+        return keySet.get().keys().containsKey(kid);
     }
 
     public String generateToken(Long userId, String email) {
+        KeySet current = keySet.get();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, current.activeKeyId())
                 .setSubject(String.valueOf(userId))
                 .claim("email", email)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMs))
-                .signWith(getSigningKey())
+                .signWith(current.keys().get(current.activeKeyId()))
                 .compact();
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    // parse + verify ครั้งเดียวแล้วดึงทุกค่าที่ filter ต้องใช้
+    public VerifiedToken verify(String token) {
+        Jws<Claims> jws = parser.parseClaimsJws(token);
+        Claims claims = jws.getBody();
+        return new VerifiedToken(
+                Long.valueOf(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.getExpiration().toInstant(),
+                signingKeyId(jws.getHeader().getKeyId())
+        );
     }
 
     public String extractEmail(String token) {
@@ -55,4 +154,37 @@ public class JwtService {
     public Long getUserId(String token) {
         return Long.valueOf(extractClaims(token).getSubject());
     }
+
+    // token ที่ออกก่อนมี kid (ไม่มี header kid) ถือว่าเซ็นด้วย jwt.secret
+    private String signingKeyId(String kid) {
+        return kid != null ? kid : keyId;
+    }
+
+    private SecretKey resolveKey(String kid) {
+        SecretKey key = keySet.get().keys().get(signingKeyId(kid));
+        if (key == null) {
+            throw new SignatureException("Unknown signing key id: " + kid);
+        }
+        return key;
+    }
+
+    // รูปแบบ "kid:secret,kid2:secret2" (jwt.verification-keys และไฟล์ของ JwtKeyRefresher)
+    static Map<String, String> parseVerificationKeys(String value) {
+        Map<String, String> keys = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return keys;
+        }
+        for (String entry : value.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("jwt.verification-keys ต้องอยู่ในรูปแบบ kid:secret");
+            }
+            keys.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+        }
+        return keys;
+    }
+
+    private static SecretKey toKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,105 @@
+package com.techup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techup.config.AuthProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * จำกัดจำนวน register/login แบบ sliding window เก็บใน memory (ต่อ instance)
+ * - ต่อ IP: ทุกครั้งที่เรียก register/login ภายใน auth.rate-limit.ip-window
+ * - ต่อ email: login ที่ผิดภายใน auth.rate-limit.email-window (login สำเร็จล้างค่า)
+ * เก็บเวลาของแต่ละครั้งไม่เกิน max ครั้งต่อ key และจำ key ได้ไม่เกิน max-tracked-keys (Caffeine)
+ * ตรวจก่อน hash รหัสผ่าน จึงไม่เสีย CPU กับ request ที่ถูกจำกัดแล้ว
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final AuthProperties.RateLimit limits;
+    private final LongSupplier nanoClock;
+    private final Cache<String, Deque<Long>> attempts;
+
+    @Autowired
+    public LoginRateLimiter(AuthProperties properties) {
+        this(properties.rateLimit(), System::nanoTime);
+    }
+
+    LoginRateLimiter(AuthProperties.RateLimit limits, LongSupplier nanoClock) {
+        this.limits = limits;
+        this.nanoClock = nanoClock;
+        Duration longestWindow = limits.emailWindow().compareTo(limits.ipWindow()) > 0
+            ? limits.emailWindow()
+            : limits.ipWindow();
+        this.attempts = Caffeine.newBuilder()
+            .maximumSize(limits.maxTrackedKeys())
+            .expireAfterAccess(longestWindow)
+            .ticker(nanoClock::getAsLong)
+            .build();
+    }
+
+    // นับ 1 ครั้งต่อ IP ก่อน register
+    public void acquireRegister(String clientIp) {
+        acquireIp(clientIp);
+    }
+
+    // ตรวจทั้ง email และ IP ก่อน login (นับ IP ทุกครั้ง ส่วน email นับเฉพาะครั้งที่ผิดผ่าน recordLoginFailure)
+    public void acquireLogin(String email, String clientIp) {
+        long retryAfter = retryAfterNanos(emailKey(email), limits.emailMaxFailures(), limits.emailWindow(), false);
+        if (retryAfter > 0) {
+            throw new TooManyAttemptsException("เข้าสู่ระบบผิดหลายครั้งเกินไป กรุณาลองใหม่ภายหลัง",
+                Duration.ofNanos(retryAfter));
+        }
+        acquireIp(clientIp);
+    }
+
+    public void recordLoginFailure(String email) {
+        retryAfterNanos(emailKey(email), limits.emailMaxFailures(), limits.emailWindow(), true);
+    }
+
+    public void recordLoginSuccess(String email) {
+        attempts.invalidate(emailKey(email));
+    }
+
+    private void acquireIp(String clientIp) {
+        long retryAfter = retryAfterNanos("ip:" + clientIp, limits.ipMaxAttempts(), limits.ipWindow(), true);
+        if (retryAfter > 0) {
+            throw new TooManyAttemptsException("มีการเรียกจาก IP นี้มากเกินไป กรุณาลองใหม่ภายหลัง",
+                Duration.ofNanos(retryAfter));
+        }
+    }
+
+    // ตัดครั้งที่หลุด window ออกแล้วดูว่าเต็มหรือยัง: เต็ม = คืนเวลาที่ต้องรอ (> 0), ไม่เต็ม = 0 และบันทึกครั้งนี้ถ้า record
+    private long retryAfterNanos(String key, int max, Duration window, boolean record) {
+        long now = nanoClock.getAsLong();
+        long windowNanos = window.toNanos();
+        Deque<Long> times = record
+            ? attempts.get(key, ignored -> new ArrayDeque<>(Math.min(max, 16)))
+            : attempts.getIfPresent(key);
+        if (times == null) {
+            return 0;
+        }
+        synchronized (times) {
+            while (!times.isEmpty() && now - times.peekFirst() >= windowNanos) {
+                times.pollFirst();
+            }
+            if (times.size() >= max) {
+                return Math.max(1, times.peekFirst() + windowNanos - now);
+            }
+            if (record) {
+                times.addLast(now);
+            }
+            return 0;
+        }
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + (email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+}
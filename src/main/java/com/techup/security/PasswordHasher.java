@@ -0,0 +1,58 @@
+package com.techup.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Hash / ตรวจรหัสผ่านด้วย BCrypt บน passwordHashingExecutor (ดู PasswordHashingConfig)
+ * คิวเต็มโยน RejectedExecutionException ทันที (controller ตอบ 503)
+ */
+@Component
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ExecutorService passwordHashingExecutor;
+
+    public String hash(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String passwordHash) {
+        return run(() -> passwordEncoder.matches(rawPassword, passwordHash));
+    }
+
+    // hash เดิมใช้ cost ต่ำกว่า auth.password.bcrypt-cost ปัจจุบัน (อ่านจาก prefix $2a$<cost>$ ไม่ต้อง hash)
+    public boolean needsRehash(String passwordHash) {
+        return passwordHash != null && !passwordHash.isEmpty() && passwordEncoder.upgradeEncoding(passwordHash);
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> result;
+        try {
+            result = passwordHashingExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new RejectedExecutionException("ระบบกำลังตรวจสอบรหัสผ่านจำนวนมาก กรุณาลองใหม่อีกครั้ง", e);
+        }
+
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("interrupted while hashing password", e);
+        }
+    }
+}
@@ -20,6 +20,17 @@ public class SecurityUtils {
         return null;
     }
 
+    /**
+     * ดึง id ของ user ที่ login ปัจจุบัน (JwtAuthenticationFilter เก็บไว้ใน details)
+     */
+    public static Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getDetails() instanceof Long userId) {
+            return userId;
+        }
+        return null;
+    }
+
     /**
      * เช็คว่า user ได้ login หรือไม่
      */
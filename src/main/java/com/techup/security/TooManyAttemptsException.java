@@ -0,0 +1,18 @@
+package com.techup.security;
+
+import java.time.Duration;
+
+// เกินจำนวนครั้งที่ LoginRateLimiter อนุญาต (ตอบ 429 พร้อม Retry-After)
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,63 @@
+package com.techup.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.techup.config.AuthProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Negative cache ของ email ที่ login แล้วไม่พบในตาราง users
+ * credential stuffing ที่ยิง email สุ่มซ้ำๆ จึงไม่ต้อง query ฐานข้อมูลทุกครั้ง
+ * - จำเฉพาะ email ที่ไม่พบซ้ำ (REPEATED_MISSES ครั้ง) คนที่พิมพ์ผิดครั้งเดียวหรือลองก่อน register ไม่ถูกจำ
+ * - register บน instance นี้ล้าง entry ทันที ส่วน instance อื่นรอ auth.unknown-email-cache.ttl (สั้นมาก)
+ *   นับจากครั้งล่าสุดที่ query แล้วไม่พบ การตอบจาก cache ไม่ต่ออายุ entry
+ * - key normalize แบบเดียวกับ LoginRateLimiter (trim + lowercase) แต่ตอบ "ไม่พบ" เฉพาะ email ที่ตรงตัวอักษร
+ *   เพราะ query เทียบแบบ WHERE email = ? การพลาดของ Bob@... จึงไม่ทำให้ bob@... ที่มีอยู่จริง login ไม่ได้
+ */
+@Component
+public class UnknownEmailCache {
+
+    static final int REPEATED_MISSES = 2;
+
+    private record Misses(String email, int count) {
+    }
+
+    private final Cache<String, Misses> unknownEmails;
+
+    public UnknownEmailCache(AuthProperties properties) {
+        this.unknownEmails = Caffeine.newBuilder()
+            .maximumSize(properties.unknownEmailCache().maxSize())
+            .expireAfterWrite(properties.unknownEmailCache().ttl())
+            .build();
+    }
+
+    public boolean isUnknown(String email) {
+        if (email == null) {
+            return false;
+        }
+        Misses misses = unknownEmails.getIfPresent(key(email));
+        return misses != null && misses.email().equals(email) && misses.count() >= REPEATED_MISSES;
+    }
+
+    // เรียกเมื่อ query แล้วไม่พบเท่านั้น
+    public void recordMiss(String email) {
+        if (email != null) {
+            unknownEmails.asMap().compute(key(email), (key, misses) ->
+                misses != null && misses.email().equals(email)
+                    ? new Misses(email, misses.count() + 1)
+                    : new Misses(email, 1));
+        }
+    }
+
+    public void forget(String email) {
+        if (email != null) {
+            unknownEmails.invalidate(key(email));
+        }
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
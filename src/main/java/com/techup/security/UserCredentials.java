@@ -0,0 +1,8 @@
+package com.techup.security;
+
+import java.time.OffsetDateTime;
+
+// ข้อมูลที่ login ต้องใช้ อ่านด้วย projection จากตาราง users (ไม่โหลด User entity)
+public record UserCredentials(Long id, String email, String passwordHash, String displayName,
+                              OffsetDateTime createdAt) {
+}
@@ -0,0 +1,7 @@
+package com.techup.security;
+
+import java.time.Instant;
+
+// ผลของการ parse + verify JWT หนึ่งครั้ง (keyId = kid ของ key ที่ใช้ verify)
+public record VerifiedToken(Long userId, String email, Instant expiresAt, String keyId) {
+}
@@ -0,0 +1,43 @@
+package com.techup.service;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+/**
+ * RequestBody ที่ stream เนื้อไฟล์จาก MultipartFile ไปที่ socket ทีละ segment (8KB)
+ * แทน file.getBytes() ที่ copy ทั้งไฟล์ (สูงสุด 10MB) เข้า heap ก่อนส่ง
+ * เปิด InputStream ใหม่ทุกครั้งที่ writeTo จึงส่งซ้ำได้เมื่อ OkHttp retry
+ */
+public class MultipartFileRequestBody extends RequestBody {
+
+    private final MultipartFile file;
+    private final MediaType contentType;
+
+    public MultipartFileRequestBody(MultipartFile file) {
+        this.file = file;
+        this.contentType = file.getContentType() != null ? MediaType.parse(file.getContentType()) : null;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.getSize();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (Source source = Okio.source(file.getInputStream())) {
+            sink.writeAll(source);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.techup.service;
+
+import com.techup.entity.StorageDeletion;
+import com.techup.repository.StorageDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * คิวลบไฟล์จาก Storage: แค่ insert ลงตาราง storage_deletions (เร็วระดับ ms)
+ * ถ้าเรียกภายใน transaction ของการลบทริป คิวจะ commit/rollback ไปพร้อมกัน
+ */
+@Service
+@RequiredArgsConstructor
+public class StorageDeletionQueue {
+
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final SupabaseStorageService storageService;
+
+    @Transactional
+    public void enqueue(Collection<String> photoUrls) {
+        if (photoUrls == null || photoUrls.isEmpty()) {
+            return;
+        }
+        storageDeletionRepository.saveAll(photoUrls.stream()
+            .map(storageService::objectPathOf)
+            .distinct()
+            .map(objectPath -> StorageDeletion.builder().objectPath(objectPath).build())
+            .toList());
+    }
+}
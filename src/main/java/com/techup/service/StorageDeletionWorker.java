@@ -0,0 +1,171 @@
+package com.techup.service;
+
+import com.techup.entity.StorageDeletion;
+import com.techup.repository.StorageDeletionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * ดึงงานจาก storage_deletions มาลบผ่าน bulk-delete ของ Supabase ทีละ batch
+ * - claim: ล็อกแถว (SKIP LOCKED) แล้วเลื่อน next_attempt_at ออกไปเป็น lease จากนั้น commit ทันที
+ *   ระหว่างเรียก Storage จึงไม่ถือ transaction/connection ไว้ ถ้า instance ตายงานจะกลับมาเมื่อ lease หมด
+ * - สำเร็จ: ลบแถวทิ้ง / ล้มเหลว: เลื่อนไปลองใหม่แบบ exponential backoff
+ * - ถ้า Storage ล้มเหลวจะหยุดรอบนั้นทันที ไม่ยิงซ้ำใส่ Storage ที่กำลังมีปัญหา
+ * - แถวที่ล้มเหลวมาแล้วเกิน split-after-failures ครั้งถูกลบทีละไฟล์ ไฟล์ที่ลบไม่ได้ไฟล์เดียวจึงไม่ขวางทั้ง batch
+ * - ล้มเหลวครบ max-attempts: ตั้ง failed_at แล้วเลิกลอง จำนวนดูได้จาก metric storage.deletion.failed
+ */
+@Component
+@RequiredArgsConstructor
+public class StorageDeletionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageDeletionWorker.class);
+
+    public static final String FAILED_METRIC_NAME = "storage.deletion.failed";
+
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final SupabaseStorageService storageService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.deletion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${storage.deletion.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${storage.deletion.lease:5m}")
+    private Duration lease;
+
+    @Value("${storage.deletion.initial-backoff:30s}")
+    private Duration initialBackoff;
+
+    @Value("${storage.deletion.max-backoff:1h}")
+    private Duration maxBackoff;
+
+    @Value("${storage.deletion.split-after-failures:3}")
+    private int splitAfterFailures;
+
+    @Value("${storage.deletion.max-attempts:20}")
+    private int maxAttempts;
+
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder(FAILED_METRIC_NAME, storageDeletionRepository,
+                StorageDeletionRepository::countByFailedAtIsNotNull)
+            .description("Storage deletions that gave up after storage.deletion.max-attempts")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.deletion.poll-interval-ms:5000}")
+    public void drain() {
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            if (processBatch() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    // คืนจำนวนที่ลบสำเร็จ
+    int processBatch() {
+        List<StorageDeletion> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+        // attempts นับรอบนี้ไปแล้ว: มากกว่า splitAfterFailures คือเคยล้มเหลวมาแล้วอย่างน้อยเท่านั้น
+        Map<Boolean, List<StorageDeletion>> suspects = batch.stream()
+            .collect(Collectors.partitioningBy(deletion -> deletion.getAttempts() > splitAfterFailures));
+        List<StorageDeletion> singles = suspects.get(true);
+        int deleted = deleteOneByOne(singles);
+
+        List<StorageDeletion> bulk = suspects.get(false);
+        if (bulk.isEmpty()) {
+            return deleted;
+        }
+        List<Long> ids = bulk.stream().map(StorageDeletion::getId).toList();
+        if (deleted < singles.size()) {
+            // Storage เพิ่งล้มเหลวในรอบนี้ ไม่ยิง bulk ต่อ
+            transactionTemplate.executeWithoutResult(status -> reschedule(ids, "skipped after storage failure"));
+            return deleted;
+        }
+        try {
+            storageService.deleteFiles(bulk.stream().map(StorageDeletion::getObjectPath).distinct().toList());
+        } catch (IOException e) {
+            transactionTemplate.executeWithoutResult(status -> reschedule(ids, e.getMessage()));
+            log.warn("Failed to delete {} storage objects, will retry: {}", ids.size(), e.getMessage());
+            return deleted;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> storageDeletionRepository.deleteAllByIdInBatch(ids));
+        return deleted + ids.size();
+    }
+
+    // ลองใหม่ทีละไฟล์ แถวที่ลบสำเร็จก่อนหน้าไม่ต้องลองซ้ำ
+    // ล้มเหลวแล้วหยุดเหมือนทาง bulk: เลื่อนแถวนั้นกับแถวที่ยังไม่ได้ลองไปรอบหน้า
+    private int deleteOneByOne(List<StorageDeletion> deletions) {
+        List<Long> done = new ArrayList<>();
+        for (int i = 0; i < deletions.size(); i++) {
+            StorageDeletion deletion = deletions.get(i);
+            try {
+                storageService.deleteFiles(List.of(deletion.getObjectPath()));
+                done.add(deletion.getId());
+            } catch (IOException e) {
+                List<Long> remaining = deletions.subList(i, deletions.size()).stream()
+                    .map(StorageDeletion::getId)
+                    .toList();
+                transactionTemplate.executeWithoutResult(status -> reschedule(remaining, e.getMessage()));
+                log.warn("Failed to delete storage object {} (attempt {}), will retry {} rows: {}",
+                    deletion.getObjectPath(), deletion.getAttempts(), remaining.size(), e.getMessage());
+                break;
+            }
+        }
+        if (!done.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> storageDeletionRepository.deleteAllByIdInBatch(done));
+        }
+        return done.size();
+    }
+
+    private List<StorageDeletion> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<StorageDeletion> batch = storageDeletionRepository.lockDue(now, batchSize);
+        for (StorageDeletion deletion : batch) {
+            deletion.setAttempts(deletion.getAttempts() + 1);
+            deletion.setNextAttemptAt(now.plus(lease));
+        }
+        return batch;
+    }
+
+    private void reschedule(List<Long> ids, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        for (StorageDeletion deletion : storageDeletionRepository.findAllById(ids)) {
+            deletion.setLastError(error);
+            if (deletion.getAttempts() >= maxAttempts) {
+                deletion.setFailedAt(now);
+                log.error("Giving up deleting storage object {} after {} attempts: {}",
+                    deletion.getObjectPath(), deletion.getAttempts(), error);
+            } else {
+                deletion.setNextAttemptAt(now.plus(backoff(deletion.getAttempts())));
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
@@ -1,14 +1,21 @@
 package com.techup.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.http.RetryInterceptor;
+import lombok.RequiredArgsConstructor;
 import okhttp3.*;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
+@RequiredArgsConstructor
 public class SupabaseStorageService {
 
     @Value("${supabase.url}")
@@ -20,62 +27,95 @@ public class SupabaseStorageService {
     @Value("${supabase.bucket}")
     private String bucketName;
 
-    private final OkHttpClient client = new OkHttpClient();
+    // client ที่ตั้งค่า pool/timeout/retry/circuit breaker ไว้แล้ว (StorageHttpConfig)
+    private final OkHttpClient storageHttpClient;
 
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    // คืน path ภายใน bucket (key ที่เก็บใน trips.photos) ไม่ใช่ public URL เต็ม
     public String uploadFile(MultipartFile file, Long tripId) throws IOException {
         String fileName = generateFileName(file, tripId);
-        String url = String.format("%s/storage/v1/object/%s/%s", 
-            supabaseUrl, bucketName, fileName);
+        upload(fileName, new MultipartFileRequestBody(file), file.getContentType());
+        return fileName;
+    }
 
-        RequestBody requestBody = RequestBody.create(
-            file.getBytes(),
-            MediaType.parse(file.getContentType())
-        );
+    // อัพโหลดไฟล์ที่สร้างขึ้นเอง (เช่นรูปที่ย่อแล้ว) ไปที่ path ที่กำหนด คืน path เดิม
+    public String uploadBytes(String objectPath, byte[] content, String contentType) throws IOException {
+        upload(objectPath, RequestBody.create(content, MediaType.parse(contentType)), contentType);
+        return objectPath;
+    }
+
+    // URL ฐานของรูปทั้งหมด: public URL = publicBaseUrl() + key (client ต่อเอง ส่งใน header X-Photo-Base-Url)
+    public String publicBaseUrl() {
+        return String.format("%s/storage/v1/object/public/%s/", supabaseUrl, bucketName);
+    }
+
+    // path ใหม่ของไฟล์ในทริป (ยังไม่มีนามสกุล)
+    public String newObjectPath(Long tripId) {
+        return String.format("trips/%d/%s", tripId, UUID.randomUUID());
+    }
+
+    private void upload(String objectPath, RequestBody requestBody, String contentType) throws IOException {
+        String url = String.format("%s/storage/v1/object/%s/%s",
+            supabaseUrl, bucketName, objectPath);
 
+        // path ใหม่ (UUID) ทุกครั้ง upsert จึงทับได้แค่ผลของ attempt ก่อนหน้าของ upload เดียวกัน
+        // ทำให้ RetryInterceptor ส่งซ้ำได้โดยไม่ได้ 400 Duplicate
         Request request = new Request.Builder()
             .url(url)
             .addHeader("Authorization", "Bearer " + supabaseKey)
-            .addHeader("Content-Type", file.getContentType())
+            .addHeader("Content-Type", contentType)
+            .addHeader(RetryInterceptor.UPSERT_HEADER, "true")
             .post(requestBody)
             .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = storageHttpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException("Upload failed: " + response.body().string());
             }
-            return getPublicUrl(fileName);
         }
     }
 
-    public void deleteFile(String photoUrl) throws IOException {
-        // Extract file path from URL
-        String fileName = photoUrl.substring(photoUrl.lastIndexOf(bucketName + "/") + bucketName.length() + 1);
-        String url = String.format("%s/storage/v1/object/%s/%s", 
-            supabaseUrl, bucketName, fileName);
+    // ลบหลายไฟล์ใน request เดียว (bulk delete ของ Supabase) ไฟล์ที่ไม่มีอยู่แล้วถือว่าลบสำเร็จ
+    public void deleteFiles(Collection<String> objectPaths) throws IOException {
+        String url = String.format("%s/storage/v1/object/%s", supabaseUrl, bucketName);
+
+        RequestBody requestBody = RequestBody.create(
+            JSON.writeValueAsBytes(Map.of("prefixes", objectPaths)),
+            MediaType.parse("application/json")
+        );
 
         Request request = new Request.Builder()
             .url(url)
             .addHeader("Authorization", "Bearer " + supabaseKey)
-            .delete()
+            .delete(requestBody)
             .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = storageHttpClient.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException("Delete failed: " + response.body().string());
             }
         }
     }
 
+    // public URL -> path ภายใน bucket (ตัดตาม prefix ของ publicBaseUrl เพราะชื่อ bucket อาจซ้ำกับ path)
+    // ค่าที่เป็น key อยู่แล้ว หรือ URL ภายนอก คืนค่าเดิม
+    public String objectPathOf(String photoUrl) {
+        String prefix = "/storage/v1/object/public/" + bucketName + "/";
+        int start = photoUrl.indexOf(prefix);
+        return start >= 0 ? photoUrl.substring(start + prefix.length()) : photoUrl;
+    }
+
+    // photos จาก request (key หรือ public URL เต็มจาก response เดิม) -> ค่าที่เก็บใน trips.photos
+    public String[] objectPathsOf(List<String> photoUrls) {
+        return photoUrls != null ? photoUrls.stream().map(this::objectPathOf).toArray(String[]::new) : null;
+    }
+
     private String generateFileName(MultipartFile file, Long tripId) {
         String originalName = file.getOriginalFilename();
         String extension = originalName != null && originalName.contains(".") 
             ? originalName.substring(originalName.lastIndexOf(".")) 
             : "";
-        return String.format("trips/%d/%s%s", tripId, UUID.randomUUID(), extension);
-    }
-
-    private String getPublicUrl(String fileName) {
-        return String.format("%s/storage/v1/object/public/%s/%s", 
-            supabaseUrl, bucketName, fileName);
+        return newObjectPath(tripId) + extension;
     }
 }
\ No newline at end of file
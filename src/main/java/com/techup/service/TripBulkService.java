@@ -0,0 +1,234 @@
+package com.techup.service;
+
+import com.techup.dto.BulkTripResponse;
+import com.techup.dto.BulkTripResult;
+import com.techup.dto.TripRequest;
+import com.techup.entity.Trip;
+import com.techup.entity.User;
+import com.techup.repository.TripRepository;
+import com.techup.repository.UserRepository;
+import com.techup.search.TripSearchEngine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * สร้าง/แก้ไขทริปทีละหลายรายการ (import จากโหมด offline ของแอป)
+ * - แบ่งเป็น chunk ละ trip.bulk.chunk-size รายการ หนึ่ง transaction ต่อ chunk
+ * - INSERT/UPDATE ของทั้ง chunk ถูก flush เป็น JDBC batch (id จาก sequence แบบ pooled ไม่ต้องรอ INSERT)
+ * - tag count / trip_count / version ของรายการ อัปเดตครั้งเดียวต่อ chunk ไม่ใช่ต่อทริป
+ * - search index อัปเดตหลัง chunk commit แล้วเท่านั้น (chunk ที่ rollback ไม่ทิ้งทริปที่ไม่มีอยู่จริงไว้ใน index)
+ * - รายการที่ไม่ผ่านการตรวจได้ FAILED เฉพาะรายการนั้น ถ้า chunk บันทึกไม่สำเร็จทั้ง chunk จะ FAILED
+ */
+@Service
+@RequiredArgsConstructor
+public class TripBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(TripBulkService.class);
+
+    private final TripRepository tripRepository;
+    private final UserRepository userRepository;
+    private final TripSearchEngine searchEngine;
+    private final TripTagCountService tagCountService;
+    private final TripListVersion tripListVersion;
+    private final TransactionTemplate transactionTemplate;
+    private final SupabaseStorageService storageService;
+
+    @Value("${trip.bulk.chunk-size:50}")
+    private int chunkSize;
+
+    @Value("${trip.bulk.max-items:500}")
+    private int maxItems;
+
+    // chunk-size <= 0 ทำให้ loop แบ่ง chunk ไม่ขยับ (from += 0) จึงต้องหยุดตั้งแต่ตอน start
+    @PostConstruct
+    void validateConfig() {
+        if (chunkSize <= 0) {
+            throw new IllegalStateException("trip.bulk.chunk-size ต้องมากกว่า 0 (ได้ " + chunkSize + ")");
+        }
+    }
+
+    public BulkTripResponse upsert(List<TripRequest> requests, Long userId) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("ต้องมีทริปอย่างน้อย 1 รายการ");
+        }
+        if (requests.size() > maxItems) {
+            throw new IllegalArgumentException(String.format("ส่งได้สูงสุด %d ทริปต่อครั้ง", maxItems));
+        }
+        User author = userRepository.findById(userId)
+            .orElseThrow(() -> new RuntimeException("ไม่พบผู้ใช้"));
+
+        List<BulkTripResult> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, requests.size());
+            results.addAll(saveChunk(requests.subList(from, to), from, author));
+        }
+
+        return BulkTripResponse.builder()
+            .created(count(results, BulkTripResult.Status.CREATED))
+            .updated(count(results, BulkTripResult.Status.UPDATED))
+            .failed(count(results, BulkTripResult.Status.FAILED))
+            .results(results)
+            .build();
+    }
+
+    private List<BulkTripResult> saveChunk(List<TripRequest> chunk, int offset, User author) {
+        try {
+            return transactionTemplate.execute(status -> writeChunk(chunk, offset, author));
+        } catch (RuntimeException e) {
+            // rollback ทั้ง chunk: ทุกรายการใน chunk ไม่ถูกบันทึก
+            // รายละเอียดของ exception (SQL, ชื่อ constraint) อยู่ใน log เท่านั้น ไม่ส่งกลับไปให้ client
+            log.warn("Bulk trip chunk at {} failed", offset, e);
+            List<BulkTripResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                failed.add(failure(offset + i, idOf(chunk.get(i)), "บันทึกไม่สำเร็จ"));
+            }
+            return failed;
+        }
+    }
+
+    private List<BulkTripResult> writeChunk(List<TripRequest> chunk, int offset, User author) {
+        // ทริปที่จะแก้ไขโหลดด้วย query เดียว
+        List<Long> ids = chunk.stream().map(TripBulkService::idOf).filter(Objects::nonNull).distinct().toList();
+        Map<Long, Trip> existing = ids.isEmpty() ? Map.of() : tripRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Trip::getId, Function.identity()));
+
+        List<BulkTripResult> results = new ArrayList<>(chunk.size());
+        Map<String, Long> tagDeltas = new HashMap<>();
+        List<Trip> saved = new ArrayList<>(chunk.size());
+        int created = 0;
+        for (int i = 0; i < chunk.size(); i++) {
+            TripRequest request = chunk.get(i);
+            int index = offset + i;
+
+            String error = validate(request);
+            if (error != null) {
+                results.add(failure(index, idOf(request), error));
+                continue;
+            }
+
+            if (request.getId() == null) {
+                Trip trip = tripRepository.save(Trip.builder()
+                    .title(request.getTitle())
+                    .description(request.getDescription())
+                    .photos(storageService.objectPathsOf(request.getPhotos()))
+                    .tags(request.getTags() != null ? request.getTags().toArray(new String[0]) : null)
+                    .latitude(request.getLatitude())
+                    .longitude(request.getLongitude())
+                    .author(author)
+                    .build());
+                saved.add(trip);
+                TripTagCountService.collectChange(tagDeltas, null, trip.getTags());
+                created++;
+                results.add(success(index, trip.getId(), BulkTripResult.Status.CREATED));
+                continue;
+            }
+
+            Trip trip = existing.get(request.getId());
+            if (trip == null) {
+                results.add(failure(index, request.getId(), "ไม่พบทริป"));
+                continue;
+            }
+            if (!trip.getAuthor().getId().equals(author.getId())) {
+                results.add(failure(index, request.getId(), "คุณไม่มีสิทธิ์แก้ไขทริปนี้"));
+                continue;
+            }
+            String[] oldTags = trip.getTags();
+            trip.setTitle(request.getTitle());
+            trip.setDescription(request.getDescription());
+            trip.setTags(request.getTags() != null ? request.getTags().toArray(new String[0]) : null);
+            trip.setLatitude(request.getLatitude());
+            trip.setLongitude(request.getLongitude());
+            // @PreUpdate ทำงานตอน flush จึงอัปเดต search_text ก่อน index
+            trip.refreshSearchText();
+            saved.add(trip);
+            TripTagCountService.collectChange(tagDeltas, oldTags, trip.getTags());
+            results.add(success(index, trip.getId(), BulkTripResult.Status.UPDATED));
+        }
+
+        if (results.stream().anyMatch(result -> result.getStatus() != BulkTripResult.Status.FAILED)) {
+            tagCountService.applyDeltas(tagDeltas);
+            if (created > 0) {
+                userRepository.incrementTripCount(author.getId(), created);
+            }
+            tripListVersion.bumpAfterCommit();
+            indexAfterCommit(saved);
+        }
+        return results;
+    }
+
+    private void indexAfterCommit(List<Trip> trips) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                // exception ตรงนี้จะหลุดออกจาก transactionTemplate.execute ทั้งที่ข้อมูล commit แล้ว
+                // ทำให้ chunk ถูกรายงานเป็น FAILED ผิดๆ จึงแค่ log (index ตามทันเมื่อทริปถูกแก้ไขครั้งถัดไป)
+                for (Trip trip : trips) {
+                    try {
+                        searchEngine.index(trip);
+                    } catch (RuntimeException e) {
+                        log.warn("Cannot index trip {} after bulk commit", trip.getId(), e);
+                    }
+                }
+            }
+        });
+    }
+
+    // ตรวจแบบเดียวกับคอลัมน์ใน DB (title NOT NULL) และช่วงพิกัดเดียวกับ findNearby
+    private static String validate(TripRequest request) {
+        if (request == null) {
+            return "รายการว่าง";
+        }
+        if (request.getTitle() == null || request.getTitle().isBlank()) {
+            return "ต้องระบุ title";
+        }
+        // "NaN" / "Infinity" ใน JSON แปลงเป็น Double ได้ และผ่านการเปรียบเทียบช่วง
+        if (request.getLatitude() != null && (!Double.isFinite(request.getLatitude())
+                || request.getLatitude() < -90 || request.getLatitude() > 90)) {
+            return "latitude ไม่ถูกต้อง";
+        }
+        if (request.getLongitude() != null && (!Double.isFinite(request.getLongitude())
+                || request.getLongitude() < -180 || request.getLongitude() > 180)) {
+            return "longitude ไม่ถูกต้อง";
+        }
+        if (request.getPhotos() != null && request.getPhotos().stream().anyMatch(p -> p == null || p.isBlank())) {
+            return "photos ต้องไม่มีค่าว่าง";
+        }
+        return null;
+    }
+
+    private static Long idOf(TripRequest request) {
+        return request != null ? request.getId() : null;
+    }
+
+    private static BulkTripResult success(int index, Long id, BulkTripResult.Status status) {
+        return BulkTripResult.builder().index(index).id(id).status(status).build();
+    }
+
+    private static BulkTripResult failure(int index, Long id, String message) {
+        return BulkTripResult.builder()
+            .index(index)
+            .id(id)
+            .status(BulkTripResult.Status.FAILED)
+            .message(message)
+            .build();
+    }
+
+    private static int count(List<BulkTripResult> results, BulkTripResult.Status status) {
+        return (int) results.stream().filter(result -> result.getStatus() == status).count();
+    }
+}
@@ -0,0 +1,37 @@
+package com.techup.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * ตำแหน่งของ keyset pagination บน (created_at, id)
+ * ส่งให้ client เป็น token แบบ opaque (base64url) เพื่อไม่ให้ client ผูกกับรูปแบบภายใน
+ */
+public record TripCursor(LocalDateTime createdAt, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TripCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep <= 0) {
+                throw new IllegalArgumentException("cursor ไม่ถูกต้อง");
+            }
+            return new TripCursor(
+                LocalDateTime.parse(raw.substring(0, sep)),
+                Long.valueOf(raw.substring(sep + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("cursor ไม่ถูกต้อง");
+        }
+    }
+}
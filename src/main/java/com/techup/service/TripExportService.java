@@ -0,0 +1,57 @@
+package com.techup.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.techup.dto.TripResponse;
+import com.techup.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Export ทุกทริปเป็น NDJSON (หนึ่งทริปต่อบรรทัด เรียงตาม id) เขียนตรงลง OutputStream
+ * อ่านจาก cursor ของฐานข้อมูลทีละ fetch size และเขียนทีละแถว memory จึงคงที่ไม่ว่ามีกี่ทริป
+ * ถ้าขาดกลางทาง client resume ได้ด้วย afterId = id ของบรรทัดสุดท้ายที่ได้รับครบ
+ * ถือ connection ไว้ตลอดการ export (transaction แบบ read-only หนึ่งอัน)
+ */
+@Service
+@RequiredArgsConstructor
+public class TripExportService {
+
+    // flush ให้ client ทุกๆ กี่แถว (ไม่ flush ทุกแถวเพราะจะได้ TCP packet เล็กๆ จำนวนมาก)
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private final TripRepository tripRepository;
+    private final ObjectMapper objectMapper;
+
+    // คืนจำนวนทริปที่เขียน
+    @Transactional(readOnly = true)
+    public long exportNdjson(long afterId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long written = 0;
+        try (Stream<TripResponse> trips = tripRepository.streamAllAfter(afterId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // ไม่ปิด response stream ตอนปิด generator, ไม่ใส่ช่องว่างคั่นระหว่างค่า (เราเขียน \n เอง)
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<TripResponse> iterator = trips.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                if (++written % FLUSH_EVERY_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,57 @@
+package com.techup.service;
+
+import com.techup.dto.ResourceVersion;
+import com.techup.repository.TripRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * เวอร์ชันของทุกรายการที่อ่านจากตาราง trips (feed, search, nearby, tags, ทริปของผู้ใช้) ใช้ทำ ETag
+ * และเป็นส่วนหนึ่งของ cache key ของ TRIP_LISTS
+ * เก็บใน sequence trip_list_version_seq แทนแถวเดียวในตาราง: การเขียนทริปไม่ต้องถือ lock ของแถวนั้น
+ * จนถึง commit ทุก writer (รวม bulk chunk) จึงไม่ต้องต่อคิวกัน
+ * sequence ไม่ rollback จึงเพิ่มหลัง commit เท่านั้น: ใครเห็น version ใหม่ก็เห็นข้อมูลที่ commit แล้ว
+ * (ถ้าเพิ่มก่อน commit request ที่อ่านระหว่างนั้นจะ cache body เก่าไว้ใต้ version ใหม่)
+ */
+@Component
+@RequiredArgsConstructor
+public class TripListVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(TripListVersion.class);
+    private static final String NAME = "trips";
+
+    private final TripRepository tripRepository;
+
+    // ไม่มีเวลาแก้ไขล่าสุด: ตอบเฉพาะ ETag (Last-Modified = ไม่ทราบ)
+    public ResourceVersion current() {
+        return ResourceVersion.ofCollection(NAME, tripRepository.findListVersion(), null);
+    }
+
+    // เรียกใน transaction ที่เขียนทริป นอก transaction เพิ่มทันที
+    public void bumpAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump();
+            }
+        });
+    }
+
+    private void bump() {
+        try {
+            tripRepository.nextListVersion();
+        } catch (RuntimeException e) {
+            // ข้อมูล commit แล้ว: ไม่โยนกลับไปให้ request ที่เขียนสำเร็จ
+            // รายการอาจค้างจนกว่าจะมีการเขียนครั้งถัดไปหรือ cache หมดอายุ (trip.cache.lists.ttl)
+            log.warn("Cannot bump trip list version after commit", e);
+        }
+    }
+}
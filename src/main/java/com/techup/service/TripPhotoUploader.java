@@ -0,0 +1,106 @@
+package com.techup.service;
+
+import com.techup.image.ImageProcessor;
+import com.techup.image.ImageVariant;
+import com.techup.image.ProcessedImage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * อัพโหลดรูปของทริปพร้อมกันทุกไฟล์บน storageExecutor
+ * ทุกรูปถูกย่อเป็นหลายขนาดและ encode ใหม่ก่อน (ImageProcessor) ไม่มีไฟล์ใดถูกเก็บตามต้นฉบับ
+ * ถ้ามีไฟล์ใดล้มเหลว ไฟล์ที่อัพโหลดสำเร็จไปแล้วใน batch เดียวกันจะเข้าคิวลบ (all-or-nothing)
+ */
+@Component
+@RequiredArgsConstructor
+public class TripPhotoUploader {
+
+    private final SupabaseStorageService storageService;
+    private final StorageDeletionQueue storageDeletionQueue;
+    private final ImageProcessor imageProcessor;
+    private final ExecutorService storageExecutor;
+
+    // คืนผลตามลำดับเดียวกับ files
+    public List<UploadedPhoto> uploadAll(Long tripId, List<MultipartFile> files) throws IOException {
+        List<Future<UploadedPhoto>> uploads = files.stream()
+            .map(file -> storageExecutor.submit(() -> uploadPhoto(file, tripId)))
+            .toList();
+
+        Exception failure = null;
+        for (Future<UploadedPhoto> upload : uploads) {
+            try {
+                upload.get();
+            } catch (ExecutionException e) {
+                failure = addFailure(failure, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                uploads.forEach(pending -> pending.cancel(true));
+                failure = addFailure(failure, new InterruptedIOException("interrupted while uploading photos"));
+                break;
+            }
+        }
+
+        List<UploadedPhoto> uploaded = uploads.stream()
+            .filter(upload -> upload.state() == Future.State.SUCCESS)
+            .map(Future::resultNow)
+            .toList();
+        if (failure != null) {
+            storageDeletionQueue.enqueue(uploaded.stream().flatMap(photo -> photo.allKeys().stream()).toList());
+            // รูปเสีย/ใหญ่เกิน (IllegalArgumentException) ส่งต่อตามเดิมให้ controller ตอบ 400
+            if (failure instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw (IOException) failure;
+        }
+        return uploaded;
+    }
+
+    private UploadedPhoto uploadPhoto(MultipartFile file, Long tripId) throws IOException {
+        // ไฟล์ต้นฉบับยังมี EXIF (รวมพิกัด GPS) ชนิดที่ encode ใหม่ไม่ได้จึงไม่อัพโหลดเลย
+        if (!imageProcessor.canProcess(file.getContentType())) {
+            throw new IllegalArgumentException("ไม่รองรับไฟล์ประเภท: " + file.getContentType());
+        }
+
+        ProcessedImage image = imageProcessor.process(file);
+        String basePath = storageService.newObjectPath(tripId);
+        List<String> uploadedKeys = new ArrayList<>();
+        try {
+            Map<String, String> keys = new LinkedHashMap<>();
+            for (Map.Entry<String, byte[]> variant : image.variants().entrySet()) {
+                // full ใช้ชื่อหลัก ขนาดอื่นต่อท้ายชื่อ variant เช่น uuid_thumb.jpg
+                String objectPath = ImageVariant.FULL.name().equals(variant.getKey())
+                    ? basePath + ProcessedImage.EXTENSION
+                    : basePath + "_" + variant.getKey() + ProcessedImage.EXTENSION;
+                String key = storageService.uploadBytes(objectPath, variant.getValue(), ProcessedImage.CONTENT_TYPE);
+                uploadedKeys.add(key);
+                keys.put(variant.getKey(), key);
+            }
+            String key = keys.remove(ImageVariant.FULL.name());
+            return new UploadedPhoto(key, keys);
+        } catch (IOException | RuntimeException e) {
+            storageDeletionQueue.enqueue(uploadedKeys);
+            throw e;
+        }
+    }
+
+    private static Exception addFailure(Exception failure, Throwable cause) {
+        if (failure == null) {
+            return cause instanceof IOException || cause instanceof RuntimeException
+                ? (Exception) cause
+                : new IOException(cause.getMessage(), cause);
+        }
+        failure.addSuppressed(cause);
+        return failure;
+    }
+}
@@ -0,0 +1,38 @@
+package com.techup.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+// ตรวจไฟล์รูปที่อัพโหลดเข้าทริป (ขนาด / ประเภท) ก่อนส่งไปประมวลผลและอัพโหลด
+public final class TripPhotoValidator {
+
+    public static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
+    // เฉพาะชนิดที่ ImageProcessor encode ใหม่ได้: WebP ยังไม่รับ เพราะ JDK อ่าน WebP ไม่ได้
+    // และการเก็บไฟล์เดิมไว้ทั้งไฟล์จะติด EXIF (รวมพิกัด GPS) ไปด้วย
+    public static final List<String> ALLOWED_TYPES = List.of(
+        "image/jpeg", "image/jpg", "image/png"
+    );
+
+    private TripPhotoValidator() {
+    }
+
+    public static void validate(MultipartFile file) {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("ไฟล์ว่างเปล่า");
+        }
+
+        if (file.getSize() > MAX_FILE_SIZE) {
+            throw new IllegalArgumentException(
+                String.format("ไฟล์มีขนาดใหญ่เกินไป (สูงสุด %d MB)", MAX_FILE_SIZE / 1024 / 1024)
+            );
+        }
+
+        String contentType = file.getContentType();
+        if (contentType == null || !ALLOWED_TYPES.contains(contentType.toLowerCase())) {
+            throw new IllegalArgumentException(
+                "รองรับเฉพาะไฟล์ประเภท: " + String.join(", ", ALLOWED_TYPES)
+            );
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.techup.service;
+
+import com.techup.dto.TripResponse;
+import com.techup.entity.Trip;
+
+import java.time.ZoneOffset;
+
+// แปลง entity -> TripResponse ไม่แตะฐานข้อมูล (author ต้องมี id อยู่แล้ว ไม่ต้อง initialize proxy)
+public final class TripResponseMapper {
+
+    private TripResponseMapper() {
+    }
+
+    public static TripResponse toResponse(Trip trip) {
+        return TripResponse.builder()
+            .id(trip.getId())
+            .title(trip.getTitle())
+            .description(trip.getDescription())
+            .photos(trip.getPhotos())
+            .photoVariants(trip.getPhotoVariants())
+            .tags(trip.getTags())
+            .latitude(trip.getLatitude())
+            .longitude(trip.getLongitude())
+            .authorId(trip.getAuthor().getId())
+            .createdAt(trip.getCreatedAt().atOffset(ZoneOffset.UTC))
+            .updatedAt(trip.getUpdatedAt().atOffset(ZoneOffset.UTC))
+            .build();
+    }
+}
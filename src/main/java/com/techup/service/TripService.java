@@ -1,21 +1,34 @@
 package com.techup.service;
 
+import com.techup.config.CacheConfig;
+import com.techup.dto.ResourceVersion;
+import com.techup.dto.TagCountResponse;
+import com.techup.dto.TripPageResponse;
 import com.techup.dto.TripRequest;
 import com.techup.dto.TripResponse;
+import com.techup.dto.UserTripsResponse;
 import com.techup.entity.Trip;
 import com.techup.entity.User;
+import com.techup.geo.GeoBoundingBox;
 import com.techup.repository.TripRepository;
 import com.techup.repository.UserRepository;
+import com.techup.search.TripSearchEngine;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -23,60 +36,99 @@ public class TripService {
 
     private final TripRepository tripRepository;
     private final UserRepository userRepository;
+    private final StorageDeletionQueue storageDeletionQueue;
+    private final TripSearchEngine searchEngine;
+    private final TripTagCountService tagCountService;
+    private final TripPhotoUploader photoUploader;
+    private final TransactionTemplate transactionTemplate;
+    private final TripListVersion tripListVersion;
     private final SupabaseStorageService storageService;
 
     private static final int MAX_PHOTOS = 5;
-    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024; // 10MB
-    private static final List<String> ALLOWED_TYPES = List.of(
-        "image/jpeg", "image/jpg", "image/png", "image/webp"
-    );
+
+    @Value("${trip.feed.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${trip.feed.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${trip.nearby.max-radius-km:100}")
+    private double maxNearbyRadiusKm;
+
+    @Value("${trip.tags.max-filter-tags:10}")
+    private int maxFilterTags;
 
     // เพิ่มรูปภาพเข้าทริป
-    @Transactional
+    // ไม่ถือ transaction/connection ระหว่างอัพโหลด: ตรวจสิทธิ์ -> อัพโหลดพร้อมกัน -> บันทึกใน transaction สั้นๆ
     public TripResponse uploadPhotos(Long tripId, List<MultipartFile> files, Long userId) throws IOException {
-        Trip trip = tripRepository.findById(tripId)
-            .orElseThrow(() -> new RuntimeException("ไม่พบทริป"));
+        transactionTemplate.executeWithoutResult(status ->
+            checkPhotoLimit(findOwnedTrip(tripRepository.findById(tripId), userId), files.size()));
+        files.forEach(TripPhotoValidator::validate);
+
+        List<UploadedPhoto> uploaded = photoUploader.uploadAll(tripId, files);
+
+        Trip savedTrip;
+        try {
+            savedTrip = transactionTemplate.execute(status -> {
+                Trip trip = findOwnedTrip(tripRepository.findByIdForUpdate(tripId), userId);
+                // ตรวจซ้ำ เผื่อมี request อื่นเพิ่มรูประหว่างที่กำลังอัพโหลด
+                checkPhotoLimit(trip, uploaded.size());
+
+                // เพิ่ม key เข้า array เดิม
+                List<String> allPhotos = new ArrayList<>();
+                if (trip.getPhotos() != null) {
+                    allPhotos.addAll(Arrays.asList(trip.getPhotos()));
+                }
+                Map<String, Map<String, String>> photoVariants = new LinkedHashMap<>();
+                if (trip.getPhotoVariants() != null) {
+                    photoVariants.putAll(trip.getPhotoVariants());
+                }
+                for (UploadedPhoto photo : uploaded) {
+                    allPhotos.add(photo.key());
+                    if (!photo.variants().isEmpty()) {
+                        photoVariants.put(photo.key(), photo.variants());
+                    }
+                }
+
+                trip.setPhotos(allPhotos.toArray(new String[0]));
+                trip.setPhotoVariants(photoVariants);
+                tripListVersion.bumpAfterCommit();
+                return tripRepository.save(trip);
+            });
+        } catch (RuntimeException e) {
+            // บันทึกไม่สำเร็จ ไฟล์ที่อัพโหลดไปแล้วจะไม่มีทริปไหนอ้างถึง
+            storageDeletionQueue.enqueue(uploaded.stream().flatMap(photo -> photo.allKeys().stream()).toList());
+            throw e;
+        }
+
+        return TripResponseMapper.toResponse(savedTrip);
+    }
+
+    private Trip findOwnedTrip(Optional<Trip> found, Long userId) {
+        Trip trip = found.orElseThrow(() -> new RuntimeException("ไม่พบทริป"));
 
         // ตรวจสอบสิทธิ์
         if (!trip.getAuthor().getId().equals(userId)) {
             throw new RuntimeException("คุณไม่มีสิทธิ์แก้ไขทริปนี้");
         }
+        return trip;
+    }
 
+    private void checkPhotoLimit(Trip trip, int newPhotoCount) {
         // นับรูปปัจจุบัน
         int currentPhotoCount = trip.getPhotos() != null ? trip.getPhotos().length : 0;
-        
-        if (currentPhotoCount + files.size() > MAX_PHOTOS) {
+
+        if (currentPhotoCount + newPhotoCount > MAX_PHOTOS) {
             throw new IllegalArgumentException(
-                String.format("สามารถอัพโหลดได้สูงสุด %d รูปต่อทริป (ปัจจุบันมี %d รูป)", 
+                String.format("สามารถอัพโหลดได้สูงสุด %d รูปต่อทริป (ปัจจุบันมี %d รูป)",
                 MAX_PHOTOS, currentPhotoCount)
             );
         }
-
-        List<String> newPhotoUrls = new ArrayList<>();
-
-        // Upload แต่ละไฟล์
-        for (MultipartFile file : files) {
-            validateFile(file);
-            String photoUrl = storageService.uploadFile(file, tripId);
-            newPhotoUrls.add(photoUrl);
-        }
-
-        // เพิ่ม URL เข้า array เดิม
-        List<String> allPhotos = new ArrayList<>();
-        if (trip.getPhotos() != null) {
-            allPhotos.addAll(Arrays.asList(trip.getPhotos()));
-        }
-        allPhotos.addAll(newPhotoUrls);
-        
-        trip.setPhotos(allPhotos.toArray(new String[0]));
-        Trip savedTrip = tripRepository.save(trip);
-
-        return convertToResponse(savedTrip);
     }
 
     // ลบรูปภาพจากทริป
     @Transactional
-    public TripResponse deletePhoto(Long tripId, String photoUrl, Long userId) throws IOException {
+    public TripResponse deletePhoto(Long tripId, String photoUrl, Long userId) {
         Trip trip = tripRepository.findById(tripId)
             .orElseThrow(() -> new RuntimeException("ไม่พบทริป"));
 
@@ -89,75 +141,213 @@ public class TripService {
             throw new RuntimeException("ไม่มีรูปภาพในทริปนี้");
         }
 
-        // ตรวจสอบว่ามี URL นี้อยู่จริง
+        // ตรวจสอบว่ามีรูปนี้อยู่จริง (รับได้ทั้ง key และ public URL เต็ม)
+        String photoKey = storageService.objectPathOf(photoUrl);
         List<String> photos = new ArrayList<>(Arrays.asList(trip.getPhotos()));
-        if (!photos.contains(photoUrl)) {
+        if (!photos.contains(photoKey)) {
             throw new RuntimeException("ไม่พบรูปภาพนี้ในทริป");
         }
 
-        // ลบไฟล์จาก Supabase Storage
-        try {
-            storageService.deleteFile(photoUrl);
-        } catch (IOException e) {
-            // Log error แต่ยังคงลบ URL ออกจาก database
-            System.err.println("Failed to delete file from storage: " + e.getMessage());
-        }
+        // ไฟล์ใน Storage (รวมขนาดย่อ) ลบเบื้องหลังโดย StorageDeletionWorker (commit พร้อมการแก้ทริป)
+        storageDeletionQueue.enqueue(withVariantKeys(trip, List.of(photoKey)));
 
-        // ลบ URL ออกจาก array
-        photos.remove(photoUrl);
+        // ลบ key ออกจาก array
+        photos.remove(photoKey);
         trip.setPhotos(photos.toArray(new String[0]));
+        if (trip.getPhotoVariants() != null) {
+            Map<String, Map<String, String>> photoVariants = new LinkedHashMap<>(trip.getPhotoVariants());
+            photoVariants.remove(photoKey);
+            trip.setPhotoVariants(photoVariants);
+        }
         Trip savedTrip = tripRepository.save(trip);
+        tripListVersion.bumpAfterCommit();
 
-        return convertToResponse(savedTrip);
+        return TripResponseMapper.toResponse(savedTrip);
     }
 
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty()) {
-            throw new IllegalArgumentException("ไฟล์ว่างเปล่า");
+    // Methods อื่นๆ ที่มีอยู่แล้ว...
+    // จำกัดไว้ที่ max-page-size ทริปล่าสุด ไม่ดึงทั้งตาราง (ใช้ getFeed สำหรับหน้าถัดไป)
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS, key = "#version.etag() + ':all'")
+    public List<TripResponse> getAllTrips(ResourceVersion version) {
+        return tripRepository.findFeedFirstPage(PageRequest.of(0, maxPageSize));
+    }
+
+    // Feed แบบ keyset pagination: cursor = null คือหน้าแรก
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS, key = "#version.etag() + ':feed:' + #cursor + ':' + #size")
+    public TripPageResponse getFeed(ResourceVersion version, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        // ดึงเกินมา 1 แถวเพื่อรู้ว่ามีหน้าถัดไปหรือไม่
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<TripResponse> trips;
+        if (cursor == null || cursor.isBlank()) {
+            trips = tripRepository.findFeedFirstPage(limit);
+        } else {
+            TripCursor after = TripCursor.decode(cursor);
+            trips = tripRepository.findFeedPageAfter(after.createdAt(), after.id(), limit);
         }
 
-        if (file.getSize() > MAX_FILE_SIZE) {
-            throw new IllegalArgumentException(
-                String.format("ไฟล์มีขนาดใหญ่เกินไป (สูงสุด %d MB)", MAX_FILE_SIZE / 1024 / 1024)
-            );
+        return toPage(trips, pageSize);
+    }
+
+    // ทริปของผู้ใช้แบบ keyset pagination (เหมือน feed) พร้อมจำนวนทริปทั้งหมดจาก users.trip_count
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS,
+               key = "#version.etag() + ':user:' + #userId + ':' + #cursor + ':' + #size")
+    public UserTripsResponse getUserTrips(ResourceVersion version, Long userId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        long tripCount = userRepository.findTripCountById(userId)
+            .orElseThrow(() -> new RuntimeException("ไม่พบผู้ใช้"));
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<TripResponse> trips;
+        if (cursor == null || cursor.isBlank()) {
+            trips = tripRepository.findAuthorFirstPage(userId, limit);
+        } else {
+            TripCursor after = TripCursor.decode(cursor);
+            trips = tripRepository.findAuthorPageAfter(userId, after.createdAt(), after.id(), limit);
         }
 
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_TYPES.contains(contentType.toLowerCase())) {
-            throw new IllegalArgumentException(
-                "รองรับเฉพาะไฟล์ประเภท: " + String.join(", ", ALLOWED_TYPES)
-            );
+        TripPageResponse page = toPage(trips, pageSize);
+        return UserTripsResponse.builder()
+            .userId(userId)
+            .tripCount(tripCount)
+            .items(page.getItems())
+            .nextCursor(page.getNextCursor())
+            .hasMore(page.isHasMore())
+            .build();
+    }
+
+    // trips ดึงมาเกิน pageSize 1 แถว: ถ้ามีแถวเกินแปลว่ามีหน้าถัดไป
+    private static TripPageResponse toPage(List<TripResponse> trips, int pageSize) {
+        boolean hasMore = trips.size() > pageSize;
+        if (hasMore) {
+            trips = trips.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TripResponse last = trips.get(trips.size() - 1);
+            nextCursor = new TripCursor(last.getCreatedAt().toLocalDateTime(), last.getId()).encode();
         }
+
+        return TripPageResponse.builder()
+            .items(trips)
+            .nextCursor(nextCursor)
+            .hasMore(hasMore)
+            .build();
     }
 
-    // Methods อื่นๆ ที่มีอยู่แล้ว...
-    public List<TripResponse> getAllTrips() {
-        return tripRepository.findAll().stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("size ต้องมากกว่า 0");
+        }
+        return Math.min(size, maxPageSize);
     }
 
-    public TripResponse getTripById(Long id) {
-        Trip trip = tripRepository.findById(id)
+    // version มาจาก getTripVersion(id) และมี id อยู่ใน ETag แล้ว
+    @Cacheable(cacheNames = CacheConfig.TRIP_DETAIL, key = "#version.etag()")
+    public TripResponse getTripById(ResourceVersion version, Long id) {
+        return tripRepository.findResponseById(id)
             .orElseThrow(() -> new RuntimeException("ไม่พบทริป"));
-        return convertToResponse(trip);
     }
 
-    public List<TripResponse> searchByKeyword(String keyword) {
-        return tripRepository.searchByKeyword(keyword).stream()
-            .map(this::convertToResponse)
-            .collect(Collectors.toList());
+    // เวอร์ชันสำหรับ conditional GET: อ่านแค่ updated_at ไม่โหลดทริป
+    public ResourceVersion getTripVersion(Long id) {
+        return tripRepository.findUpdatedAtById(id)
+            .map(updatedAt -> ResourceVersion.ofTrip(id, updatedAt))
+            .orElseThrow(() -> new RuntimeException("ไม่พบทริป"));
+    }
+
+    // เวอร์ชันของทุกรายการที่อ่านจากตาราง trips (เพิ่มทุกครั้งที่สร้าง/แก้/ลบทริปหรือรูป)
+    public ResourceVersion getListVersion() {
+        return tripListVersion.current();
+    }
+
+    // Full-text search เรียงตามความเกี่ยวข้อง (page เริ่มที่ 0)
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS,
+               key = "#version.etag() + ':search:' + #keyword + ':' + #page + ':' + #size")
+    public List<TripResponse> searchByKeyword(ResourceVersion version, String keyword, int page, Integer size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("page ต้องไม่ติดลบ");
+        }
+        return searchEngine.search(keyword, page, resolvePageSize(size));
+    }
+
+    // ทริปใกล้จุด (lat, lng) ภายในรัศมี เรียงจากใกล้ไปไกล (size = k ทริปที่ใกล้ที่สุด)
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS,
+               key = "#version.etag() + ':nearby:' + #latitude + ':' + #longitude + ':' + #radiusKm"
+                   + " + ':' + #page + ':' + #size")
+    public List<TripResponse> findNearby(ResourceVersion version, double latitude, double longitude, double radiusKm,
+                                         int page, Integer size) {
+        // NaN ผ่านการเปรียบเทียบช่วงทุกแบบ (ทุกการเปรียบเทียบกับ NaN เป็น false) จึงต้องตรวจ isFinite ก่อน
+        if (!Double.isFinite(latitude) || !Double.isFinite(longitude)
+                || latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("พิกัดไม่ถูกต้อง");
+        }
+        if (!Double.isFinite(radiusKm) || radiusKm <= 0 || radiusKm > maxNearbyRadiusKm) {
+            throw new IllegalArgumentException(
+                String.format("รัศมีต้องอยู่ระหว่าง 0 ถึง %.0f กม.", maxNearbyRadiusKm)
+            );
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page ต้องไม่ติดลบ");
+        }
+
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, radiusKm);
+        return tripRepository.findNearby(latitude, longitude, radiusKm,
+            box.minLat(), box.maxLat(), box.minLng(), box.maxLng(),
+            PageRequest.of(page, resolvePageSize(size)));
+    }
+
+    // ทริปที่มี tag ตามเงื่อนไข: matchAll = true ต้องมีครบทุก tag, false มี tag ใด tag หนึ่ง
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS,
+               key = "#version.etag() + ':tags:' + #tags + ':' + #matchAll + ':' + #page + ':' + #size")
+    public List<TripResponse> findByTags(ResourceVersion version, List<String> tags, boolean matchAll,
+                                         int page, Integer size) {
+        String[] filter = tags == null ? new String[0] : tags.stream()
+            .filter(tag -> tag != null && !tag.isBlank())
+            .distinct()
+            .toArray(String[]::new);
+        if (filter.length == 0) {
+            throw new IllegalArgumentException("ต้องระบุ tag อย่างน้อย 1 รายการ");
+        }
+        if (filter.length > maxFilterTags) {
+            throw new IllegalArgumentException(
+                String.format("ระบุ tag ได้สูงสุด %d รายการ", maxFilterTags)
+            );
+        }
+        if (page < 0) {
+            throw new IllegalArgumentException("page ต้องไม่ติดลบ");
+        }
+
+        PageRequest pageRequest = PageRequest.of(page, resolvePageSize(size));
+        return matchAll
+            ? tripRepository.findByAllTags(filter, pageRequest)
+            : tripRepository.findByAnyTags(filter, pageRequest);
+    }
+
+    // จำนวนทริปต่อ tag จาก aggregate ที่ดูแลไว้ (ไม่ COUNT จากตาราง trips)
+    @Cacheable(cacheNames = CacheConfig.TRIP_LISTS, key = "#version.etag() + ':tagCounts:' + #limit")
+    public List<TagCountResponse> getTagCounts(ResourceVersion version, Integer limit) {
+        return tagCountService.getTopTags(resolvePageSize(limit));
     }
 
     @Transactional
     public TripResponse createTrip(TripRequest request) {
+        // [null] ใน JSON ทำให้แปลง key ไม่ได้ ต้องตอบ 400 ไม่ใช่ 500
+        if (request.getPhotos() != null && request.getPhotos().stream().anyMatch(p -> p == null || p.isBlank())) {
+            throw new IllegalArgumentException("photos ต้องไม่มีค่าว่าง");
+        }
         User author = userRepository.findById(request.getAuthorId())
             .orElseThrow(() -> new RuntimeException("ไม่พบผู้ใช้"));
 
         Trip trip = Trip.builder()
             .title(request.getTitle())
             .description(request.getDescription())
-            .photos(request.getPhotos() != null ? request.getPhotos().toArray(new String[0]) : null)  // ← แปลง List → Array
+            .photos(storageService.objectPathsOf(request.getPhotos()))  // ← แปลง List → Array ของ key
             .tags(request.getTags() != null ? request.getTags().toArray(new String[0]) : null)  // ← แปลง List → Array
             .latitude(request.getLatitude())
             .longitude(request.getLongitude())
@@ -165,7 +355,11 @@ public class TripService {
             .build();
 
         Trip savedTrip = tripRepository.save(trip);
-        return convertToResponse(savedTrip);
+        searchEngine.index(savedTrip);
+        tagCountService.applyChange(null, savedTrip.getTags());
+        userRepository.incrementTripCount(author.getId(), 1);
+        tripListVersion.bumpAfterCommit();
+        return TripResponseMapper.toResponse(savedTrip);
     }
 
     @Transactional
@@ -177,6 +371,8 @@ public class TripService {
             throw new RuntimeException("คุณไม่มีสิทธิ์แก้ไขทริปนี้");
         }
 
+        String[] oldTags = trip.getTags();
+
         trip.setTitle(request.getTitle());
         trip.setDescription(request.getDescription());
         trip.setTags(request.getTags() != null ? request.getTags().toArray(new String[0]) : null);  // ← แปลง List → Array
@@ -184,7 +380,10 @@ public class TripService {
         trip.setLongitude(request.getLongitude());
 
         Trip savedTrip = tripRepository.save(trip);
-        return convertToResponse(savedTrip);
+        searchEngine.index(savedTrip);
+        tagCountService.applyChange(oldTags, savedTrip.getTags());
+        tripListVersion.bumpAfterCommit();
+        return TripResponseMapper.toResponse(savedTrip);
     }
 
 
@@ -197,32 +396,29 @@ public class TripService {
             throw new RuntimeException("คุณไม่มีสิทธิ์ลบทริปนี้");
         }
 
-        // ลบรูปภาพทั้งหมดจาก Storage ก่อน
+        // รูปภาพทั้งหมด (รวมขนาดย่อ) เข้าคิวลบจาก Storage (ลบจริงเบื้องหลังหลัง commit)
         if (trip.getPhotos() != null) {
-            for (String photoUrl : trip.getPhotos()) {
-                try {
-                    storageService.deleteFile(photoUrl);
-                } catch (IOException e) {
-                    System.err.println("Failed to delete photo: " + photoUrl);
-                }
-            }
+            storageDeletionQueue.enqueue(withVariantKeys(trip, Arrays.asList(trip.getPhotos())));
         }
 
         tripRepository.delete(trip);
+        searchEngine.remove(id);
+        tagCountService.applyChange(trip.getTags(), null);
+        userRepository.incrementTripCount(userId, -1);
+        tripListVersion.bumpAfterCommit();
     }
 
-    private TripResponse convertToResponse(Trip trip) {
-        return TripResponse.builder()
-            .id(trip.getId())
-            .title(trip.getTitle())
-            .description(trip.getDescription())
-            .photos(trip.getPhotos())
-            .tags(trip.getTags())
-            .latitude(trip.getLatitude())
-            .longitude(trip.getLongitude())
-            .authorId(trip.getAuthor().getId())
-            .createdAt(trip.getCreatedAt().atOffset(java.time.ZoneOffset.UTC))
-            .updatedAt(trip.getUpdatedAt().atOffset(java.time.ZoneOffset.UTC))
-            .build();
+    // key ของรูป + key ขนาดย่อทั้งหมดของรูปนั้น
+    private static List<String> withVariantKeys(Trip trip, List<String> photoKeys) {
+        List<String> keys = new ArrayList<>(photoKeys);
+        if (trip.getPhotoVariants() != null) {
+            for (String photoKey : photoKeys) {
+                Map<String, String> variants = trip.getPhotoVariants().get(photoKey);
+                if (variants != null) {
+                    keys.addAll(variants.values());
+                }
+            }
+        }
+        return keys;
     }
 }
\ No newline at end of file
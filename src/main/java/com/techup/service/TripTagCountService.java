@@ -0,0 +1,91 @@
+package com.techup.service;
+
+import com.techup.dto.TagCountResponse;
+import com.techup.repository.TripTagCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ดูแลตาราง trip_tag_counts ให้ตรงกับ trips
+ * อัปเดตเฉพาะ tag ที่เปลี่ยนใน transaction เดียวกับการเขียนทริป จึงไม่ต้อง COUNT ทุก request
+ */
+@Service
+@RequiredArgsConstructor
+public class TripTagCountService {
+
+    private final TripTagCountRepository tagCountRepository;
+
+    // oldTags = null ตอนสร้าง, newTags = null ตอนลบ
+    @Transactional
+    public void applyChange(String[] oldTags, String[] newTags) {
+        Map<String, Long> deltas = new HashMap<>();
+        collectChange(deltas, oldTags, newTags);
+        applyDeltas(deltas);
+    }
+
+    // รวมการเปลี่ยน tag ของหลายทริป (bulk) ไว้ใน deltas แล้วเรียก applyDeltas ครั้งเดียว
+    public static void collectChange(Map<String, Long> deltas, String[] oldTags, String[] newTags) {
+        Set<String> before = distinct(oldTags);
+        Set<String> after = distinct(newTags);
+
+        for (String tag : after) {
+            if (!before.contains(tag)) {
+                deltas.merge(tag, 1L, Long::sum);
+            }
+        }
+        for (String tag : before) {
+            if (!after.contains(tag)) {
+                deltas.merge(tag, -1L, Long::sum);
+            }
+        }
+    }
+
+    // หนึ่ง statement ต่อ tag ไม่ว่าจะมีกี่ทริป (ลดจนเหลือ 0 เพิ่มอีกหนึ่ง statement เพื่อลบแถว)
+    // ค่าลบไม่ถูก insert: ถ้าแถวหายไป (เช่นลบตอนนับถึง 0) การลดซ้ำต้องไม่สร้างแถว -1 ที่ไปหักล้างทริปใหม่
+    @Transactional
+    public void applyDeltas(Map<String, Long> deltas) {
+        deltas.forEach((tag, delta) -> {
+            if (delta > 0) {
+                tagCountRepository.increment(tag, delta);
+            } else if (delta < 0) {
+                tagCountRepository.decrement(tag, -delta);
+                tagCountRepository.deleteIfEmpty(tag);
+            }
+        });
+    }
+
+    public List<TagCountResponse> getTopTags(int limit) {
+        return tagCountRepository.findTopTags(PageRequest.of(0, limit));
+    }
+
+    // ครั้งแรกที่เปิดใช้ (ตารางว่าง) ให้นับจากทริปที่มีอยู่แล้ว
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildIfEmpty() {
+        if (tagCountRepository.count() == 0) {
+            tagCountRepository.rebuild();
+        }
+    }
+
+    private static Set<String> distinct(String[] tags) {
+        Set<String> result = new HashSet<>();
+        if (tags != null) {
+            for (String tag : tags) {
+                if (tag != null && !tag.isBlank()) {
+                    result.add(tag);
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,19 @@
+package com.techup.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * รูปที่อัพโหลดแล้ว 1 รูป: key หลัก (อยู่ใน photos[]) + key ของขนาดย่อ (key = ImageVariant.name())
+ * key คือ path ภายใน bucket ต่อท้าย SupabaseStorageService.publicBaseUrl() ได้ public URL
+ */
+public record UploadedPhoto(String key, Map<String, String> variants) {
+
+    public List<String> allKeys() {
+        List<String> keys = new ArrayList<>();
+        keys.add(key);
+        keys.addAll(variants.values());
+        return keys;
+    }
+}
@@ -3,62 +3,101 @@ package com.techup.service;
 import com.techup.dto.UserRequest;
 import com.techup.dto.UserResponse;
 import com.techup.dto.UserLoginRequest;
-import com.techup.entity.User;
 import com.techup.repository.UserRepository;
 import com.techup.security.JwtService;
+import com.techup.security.LoginRateLimiter;
+import com.techup.security.PasswordHasher;
+import com.techup.security.UnknownEmailCache;
+import com.techup.security.UserCredentials;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.security.crypto.bcrypt.BCrypt;
 
 import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    private static final Logger log = LoggerFactory.getLogger(UserService.class);
+
     private final UserRepository userRepository;
     private final JwtService jwtService;  // เพิ่มนี้
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
+    private final UnknownEmailCache unknownEmailCache;
 
-    // Register
-    public UserResponse register(UserRequest request) {
-        if(userRepository.findByEmail(request.getEmail()).isPresent()) {
-            throw new RuntimeException("Email already exists");
-        }
+    // Register: INSERT เดียว ถ้า email ซ้ำ unique constraint ตัดสิน (ไม่ต้อง SELECT ก่อน และไม่ race)
+    public UserResponse register(UserRequest request, String clientIp) {
+        loginRateLimiter.acquireRegister(clientIp);
 
-        User user = new User();
-        user.setEmail(request.getEmail());
-        user.setPasswordHash(BCrypt.hashpw(request.getPassword(), BCrypt.gensalt()));
-        user.setDisplayName(request.getDisplayName());
-        user.setCreatedAt(OffsetDateTime.now());
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        String passwordHash = passwordHasher.hash(request.getPassword());
+        Long id = userRepository.insertIfEmailAbsent(
+                request.getEmail(), passwordHash, request.getDisplayName(), createdAt)
+                .orElseThrow(() -> new RuntimeException("Email already exists"));
+        unknownEmailCache.forget(request.getEmail());
 
-        userRepository.save(user);
-        
         // สร้าง token เมื่อ register
-        String token = jwtService.generateToken(user.getId(), user.getEmail());
+        UserCredentials user = new UserCredentials(id, request.getEmail(), passwordHash,
+                request.getDisplayName(), createdAt);
+        String token = jwtService.generateToken(user.id(), user.email());
         return toResponse(user, token);
     }
 
-    // Login
-    public UserResponse login(UserLoginRequest request) {
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new RuntimeException("Email not found"));
+    // Login: ตรวจ rate limit ก่อน (ไม่เสีย CPU กับ BCrypt เมื่อถูกจำกัดแล้ว)
+    // email ที่หาไม่พบซ้ำหลายครั้งตอบจาก UnknownEmailCache ไม่ query ซ้ำ
+    public UserResponse login(UserLoginRequest request, String clientIp) {
+        loginRateLimiter.acquireLogin(request.getEmail(), clientIp);
+
+        boolean fromCache = unknownEmailCache.isUnknown(request.getEmail());
+        Optional<UserCredentials> found = fromCache
+                ? Optional.empty()
+                : userRepository.findCredentialsByEmail(request.getEmail());
+        if (found.isEmpty()) {
+            if (!fromCache) {
+                unknownEmailCache.recordMiss(request.getEmail());
+            }
+            loginRateLimiter.recordLoginFailure(request.getEmail());
+            throw new RuntimeException("Email not found");
+        }
+        UserCredentials user = found.get();
 
-        if(!BCrypt.checkpw(request.getPassword(), user.getPasswordHash())) {
+        if(!passwordHasher.matches(request.getPassword(), user.passwordHash())) {
+            loginRateLimiter.recordLoginFailure(request.getEmail());
             throw new RuntimeException("Invalid password");
         }
+        loginRateLimiter.recordLoginSuccess(request.getEmail());
+        upgradePasswordHash(user, request.getPassword());
 
         // สร้าง token เมื่อ login
-        String token = jwtService.generateToken(user.getId(), user.getEmail());
+        String token = jwtService.generateToken(user.id(), user.email());
         return toResponse(user, token);
     }
 
-    // Mapping entity → DTO (with token)
-    private UserResponse toResponse(User user, String token) {
+    // hash ที่ใช้ cost เก่าถูก hash ใหม่ด้วย cost ปัจจุบัน (มีรหัสผ่านจริงอยู่ในมือเฉพาะตอน login)
+    // ถ้า pool เต็มก็ข้ามไปก่อน login ครั้งหน้าค่อยทำ ไม่ให้ login ล้มเพราะเรื่องนี้
+    private void upgradePasswordHash(UserCredentials user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.passwordHash())) {
+            return;
+        }
+        try {
+            userRepository.updatePasswordHash(user.id(), passwordHasher.hash(rawPassword));
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipped password rehash for user {}: {}", user.id(), e.getMessage());
+        }
+    }
+
+    // Mapping → DTO (with token)
+    private UserResponse toResponse(UserCredentials user, String token) {
         return UserResponse.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .displayName(user.getDisplayName())
-                .createdAt(user.getCreatedAt())
+                .id(user.id())
+                .email(user.email())
+                .displayName(user.displayName())
+                .createdAt(user.createdAt())
                 .token(token)  // เพิ่ม token ในตรงนี้
                 .build();
     }
@@ -0,0 +1,48 @@
+-- schema เริ่มต้น (ย้ายมาจาก comment ท้าย entity)
+-- ใช้ IF NOT EXISTS ทั้งหมด เพราะฐานข้อมูลเดิมถูกสร้างด้วยมือหรือ ddl-auto=update มาก่อน
+-- (spring.flyway.baseline-version=0 ทำให้ migration นี้รันบนฐานข้อมูลเดิมด้วย และไม่เปลี่ยนอะไรถ้ามีครบแล้ว)
+
+-- ตารางผู้ใช้
+CREATE TABLE IF NOT EXISTS users (
+  id BIGSERIAL PRIMARY KEY,
+  email VARCHAR(255) UNIQUE NOT NULL,
+  password_hash TEXT NOT NULL,
+  display_name VARCHAR(100),
+  created_at TIMESTAMPTZ DEFAULT NOW()
+);
+
+-- ตารางทริป
+CREATE TABLE IF NOT EXISTS trips (
+  id BIGSERIAL PRIMARY KEY,
+  title TEXT NOT NULL,
+  description TEXT,
+  photos TEXT[] NOT NULL DEFAULT '{}',
+  tags TEXT[] NOT NULL DEFAULT '{}',
+  author_id BIGINT REFERENCES users(id) ON DELETE SET NULL,
+  created_at TIMESTAMPTZ DEFAULT NOW(),
+  updated_at TIMESTAMPTZ DEFAULT NOW()
+);
+
+-- คอลัมน์ที่เพิ่มทีหลัง (ฐานข้อมูลเก่าอาจยังไม่มี)
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS photo_variants JSONB;
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS search_text TEXT;
+ALTER TABLE trips ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+  GENERATED ALWAYS AS (to_tsvector('simple', coalesce(search_text, ''))) STORED;
+
+-- จำนวนทริปต่อ tag
+CREATE TABLE IF NOT EXISTS trip_tag_counts (
+  tag TEXT PRIMARY KEY,
+  trip_count BIGINT NOT NULL DEFAULT 0
+);
+
+-- ไฟล์ที่รอลบจาก Storage
+CREATE TABLE IF NOT EXISTS storage_deletions (
+  id BIGSERIAL PRIMARY KEY,
+  object_path TEXT NOT NULL,
+  attempts INT NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP NOT NULL,
+  last_error TEXT,
+  created_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,20 @@
+-- index ตาม query ใน TripRepository / StorageDeletionRepository
+-- users(email) ไม่ต้องสร้างเพิ่ม: UNIQUE constraint มี index ให้แล้ว (findByEmail ตอน login)
+
+-- ทริปของผู้ใช้ (findByAuthorId, countByAuthorId) และ ON DELETE SET NULL ตอนลบ user
+CREATE INDEX IF NOT EXISTS idx_trips_author_id ON trips (author_id);
+
+-- feed / getAllTrips: ORDER BY created_at DESC, id DESC (keyset pagination)
+CREATE INDEX IF NOT EXISTS idx_trips_created_at_id ON trips (created_at DESC, id DESC);
+
+-- กรองตาม tag (tags @> / && ใน findByAllTags / findByAnyTags)
+CREATE INDEX IF NOT EXISTS idx_trips_tags ON trips USING GIN (tags);
+
+-- full-text search (fts_match ใน searchFullText)
+CREATE INDEX IF NOT EXISTS idx_trips_search_vector ON trips USING GIN (search_vector);
+
+-- ค้นหาทริปใกล้เคียง (bounding box ก่อนคำนวณ Haversine)
+CREATE INDEX IF NOT EXISTS idx_trips_lat_lng ON trips (latitude, longitude);
+
+-- StorageDeletionWorker หยิบงานที่ถึงเวลา (next_attempt_at <= now)
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_next_attempt ON storage_deletions (next_attempt_at);
@@ -0,0 +1,9 @@
+-- จำนวนทริปต่อผู้ใช้ (denormalized) สำหรับ /api/users/{id}/trips และ /api/me/trips
+ALTER TABLE users ADD COLUMN IF NOT EXISTS trip_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE users u
+SET trip_count = (SELECT COUNT(*) FROM trips t WHERE t.author_id = u.id);
+
+-- ทริปของผู้ใช้เรียงใหม่สุดก่อน (keyset pagination) ครอบคลุม index author_id เดิมด้วย
+CREATE INDEX IF NOT EXISTS idx_trips_author_created_at_id ON trips (author_id, created_at DESC, id DESC);
+DROP INDEX IF EXISTS idx_trips_author_id;
@@ -0,0 +1,9 @@
+-- เวอร์ชันของรายการ (feed, search, nearby, tags, ทริปของผู้ใช้) ใช้ทำ ETag / Last-Modified
+-- เพิ่ม version ใน transaction เดียวกับการเขียนทริป จึงเห็นเวอร์ชันใหม่พร้อมข้อมูลใหม่เสมอ
+CREATE TABLE IF NOT EXISTS collection_versions (
+  name TEXT PRIMARY KEY,
+  version BIGINT NOT NULL DEFAULT 0,
+  updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO collection_versions (name) VALUES ('trips') ON CONFLICT (name) DO NOTHING;
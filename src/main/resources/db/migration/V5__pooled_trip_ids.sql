@@ -0,0 +1,7 @@
+-- id ของทริปจาก sequence แบบ pooled (Hibernate จอง id ครั้งละ 50 ใน memory)
+-- ต้องไม่ใช่ IDENTITY เพราะ IDENTITY ต้อง INSERT ทีละแถวเพื่อรู้ id ทำให้ JDBC batch insert ไม่ทำงาน
+-- nextval คือ id สูงสุดของ block ถัดไป จึงตั้งค่าเริ่มให้ block แรกต่อจาก id ที่มีอยู่แล้ว
+-- (default ของคอลัมน์ id เดิมยังอยู่ แต่แอปไม่ใช้แล้ว: insert ทริปต้องผ่าน Hibernate เท่านั้น)
+CREATE SEQUENCE IF NOT EXISTS trips_pooled_id_seq INCREMENT BY 50;
+
+SELECT setval('trips_pooled_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM trips), false);
@@ -0,0 +1,41 @@
+-- เก็บรูปเป็น key (path ภายใน bucket) แทน public URL เต็ม: ตัดทุกอย่างจนถึง /storage/v1/object/public/<bucket>/
+-- ตัดตาม suffix แบบเดียวกับ SupabaseStorageService.objectPathOf จึงไม่ขึ้นกับ host ใน SUPABASE_URL
+-- (URL เดิมอาจมาจาก host อื่น เช่น custom domain) ${storage_bucket} มาจาก spring.flyway.placeholders
+-- URL ที่ไม่มี suffix นี้ (รูปจากภายนอก) เก็บไว้ตามเดิม
+
+-- bucket ว่างแต่ยังมี public URL ของ Supabase อยู่: หยุด ไม่ให้ migration ผ่านไปโดยไม่ได้แปลงอะไร
+DO $$
+BEGIN
+  IF '${storage_bucket}' = '' AND EXISTS (
+      SELECT 1 FROM trips, unnest(photos) AS p(photo)
+      WHERE strpos(photo, '/storage/v1/object/public/') > 0) THEN
+    RAISE EXCEPTION 'V6: spring.flyway.placeholders.storage_bucket (SUPABASE_BUCKET) is empty but trips.photos contains Supabase public URLs';
+  END IF;
+END
+$$;
+
+CREATE FUNCTION pg_temp.photo_key(photo TEXT) RETURNS TEXT LANGUAGE sql IMMUTABLE AS $$
+  SELECT CASE WHEN strpos(photo, '/storage/v1/object/public/${storage_bucket}/') > 0
+              THEN substr(photo, strpos(photo, '/storage/v1/object/public/${storage_bucket}/')
+                                 + length('/storage/v1/object/public/${storage_bucket}/'))
+              ELSE photo END
+$$;
+
+-- photo_variants: {"<url>": {"medium": "<url>", ...}} -> {"<key>": {"medium": "<key>", ...}}
+-- updated_at เปลี่ยนด้วย เพื่อให้ ETag ของรายละเอียดทริปเปลี่ยนตาม
+UPDATE trips
+SET photos = ARRAY(
+      SELECT pg_temp.photo_key(photo)
+      FROM unnest(photos) WITH ORDINALITY AS p(photo, position)
+      ORDER BY position),
+    photo_variants = (
+      SELECT jsonb_object_agg(pg_temp.photo_key(original.key),
+               (SELECT jsonb_object_agg(variant.key, pg_temp.photo_key(variant.value))
+                FROM jsonb_each_text(original.value) AS variant))
+      FROM jsonb_each(photo_variants) AS original),
+    updated_at = NOW()
+WHERE EXISTS (SELECT 1 FROM unnest(photos) AS p(photo)
+              WHERE strpos(photo, '/storage/v1/object/public/${storage_bucket}/') > 0);
+
+-- รายการที่ cache ไว้ (ETag ของ collection) ต้องหมดอายุด้วย
+UPDATE collection_versions SET version = version + 1, updated_at = NOW() WHERE name = 'trips';
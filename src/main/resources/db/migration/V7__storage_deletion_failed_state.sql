@@ -0,0 +1,8 @@
+-- งานลบไฟล์ที่ล้มเหลวครบ storage.deletion.max-attempts ครั้ง: เลิกลองใหม่แต่เก็บแถวไว้ให้ตรวจ/สั่งใหม่เอง
+-- (ตั้ง failed_at = NULL และ attempts = 0 เพื่อให้ worker หยิบกลับไปทำ)
+ALTER TABLE storage_deletions ADD COLUMN IF NOT EXISTS failed_at TIMESTAMP;
+
+-- worker ค้นเฉพาะงานที่ยังไม่ล้มเหลวถาวร, metric storage.deletion.failed นับเฉพาะแถวที่ล้มเหลว
+DROP INDEX IF EXISTS idx_storage_deletions_next_attempt;
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_next_attempt ON storage_deletions (next_attempt_at) WHERE failed_at IS NULL;
+CREATE INDEX IF NOT EXISTS idx_storage_deletions_failed ON storage_deletions (failed_at) WHERE failed_at IS NOT NULL;
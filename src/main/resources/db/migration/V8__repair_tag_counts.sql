@@ -0,0 +1,7 @@
+-- การลด tag ที่ไม่มีแถวเคยถูก insert เป็นค่าลบ (-1) แล้วไปหักล้างทริปที่เพิ่มภายหลัง
+-- จำนวนของ tag เหล่านั้นเชื่อไม่ได้ จึงนับใหม่ทั้งตารางจาก trips (แบบเดียวกับ TripTagCountRepository.rebuild)
+-- tag ที่ไม่มีทริปแล้วไม่มีแถว ตรงกับที่ TripTagCountService ลบแถวเมื่อนับถึง 0
+DELETE FROM trip_tag_counts;
+
+INSERT INTO trip_tag_counts (tag, trip_count)
+SELECT tag, COUNT(DISTINCT t.id) FROM trips t, unnest(t.tags) AS tag GROUP BY tag;
@@ -0,0 +1,10 @@
+-- เวอร์ชันของรายการทริปย้ายจากแถว collection_versions('trips') ไปเป็น sequence
+-- ทุกการเขียนทริปเคย upsert แถวเดียวกันใน transaction ของตัวเอง จึงต่อคิวกันที่ row lock จนถึง commit
+-- nextval ไม่ lock และไม่ rollback (แอปเรียกหลัง commit ดู TripListVersion)
+CREATE SEQUENCE IF NOT EXISTS trip_list_version_seq;
+
+-- เริ่มต่อจาก version เดิม ETag ที่ client ถืออยู่ (W/"trips-<version>") จึงไม่ชนกับค่าใหม่
+SELECT setval('trip_list_version_seq',
+              COALESCE((SELECT version FROM collection_versions WHERE name = 'trips'), 0) + 1);
+
+DROP TABLE IF EXISTS collection_versions;
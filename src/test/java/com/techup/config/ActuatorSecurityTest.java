@@ -0,0 +1,76 @@
+package com.techup.config;
+
+import com.techup.security.JwtAuthenticationCache;
+import com.techup.security.JwtAuthenticationFilter;
+import com.techup.security.JwtService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * endpoint ของ actuator นอกจาก health/prometheus ต้องปิด แม้ผู้เรียกมี token ที่ถูกต้อง
+ * (ทุกคน register เองได้ token จึงไม่ใช่สิทธิ์ผู้ดูแล)
+ */
+@SpringBootTest(
+    classes = {SecurityConfig.class, JwtAuthenticationFilter.class, JwtAuthenticationCache.class, JwtService.class,
+        ActuatorSecurityTest.Metrics.class},
+    properties = {
+        "jwt.secret=test-secret-key-that-is-long-enough-for-hs256",
+        "jwt.expiration=60000"
+    })
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+    WebMvcAutoConfiguration.class, SecurityAutoConfiguration.class})
+@AutoConfigureMockMvc
+class ActuatorSecurityTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void authenticatedUserCannotReachCachesOrMetrics() throws Exception {
+        when(userDetailsService.loadUserByUsername("a@example.com"))
+            .thenReturn(User.withUsername("a@example.com").password("x").authorities("USER").build());
+        String bearer = "Bearer " + jwtService.generateToken(1L, "a@example.com");
+
+        mockMvc.perform(delete("/actuator/caches").servletPath("/actuator/caches")
+                .header(HttpHeaders.AUTHORIZATION, bearer))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").servletPath("/actuator/metrics")
+                .header(HttpHeaders.AUTHORIZATION, bearer))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,110 @@
+package com.techup.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.controller.ConditionalGet;
+import com.techup.controller.TripController;
+import com.techup.dto.ResourceVersion;
+import com.techup.dto.TripResponse;
+import com.techup.service.SupabaseStorageService;
+import com.techup.service.TripBulkService;
+import com.techup.service.TripService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON ยังเป็นค่าเริ่มต้น ส่วน Smile / CBOR ได้เมื่อขอผ่าน Accept และถอดกลับได้ข้อมูลเดียวกัน
+ */
+@SpringBootTest(classes = WebConfig.class)
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class})
+class WebConfigTest {
+
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2025, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    @Autowired
+    private HttpMessageConverters converters;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Test
+    void jsonIsTheDefaultAndBinaryFormatsAreNegotiated() throws Exception {
+        MockMvc mockMvc = mockMvc();
+
+        mockMvc.perform(get("/api/trips/7"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+            .andExpect(jsonPath("$.photos[0]").value("trips/7/a.jpg"))
+            .andExpect(jsonPath("$.createdAt").value("2025-01-02T03:04:05Z"));
+
+        byte[] smile = mockMvc.perform(get("/api/trips/7").accept(MediaType.parseMediaType(SMILE)))
+            .andExpect(content().contentTypeCompatibleWith(SMILE))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertDecodesToTrip(smileConverter.getObjectMapper(), smile);
+
+        byte[] cbor = mockMvc.perform(get("/api/trips/7").accept(MediaType.APPLICATION_CBOR))
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+            .andReturn().getResponse().getContentAsByteArray();
+        assertDecodesToTrip(cborConverter.getObjectMapper(), cbor);
+    }
+
+    private MockMvc mockMvc() {
+        TripService tripService = mock(TripService.class);
+        ResourceVersion version = ResourceVersion.ofTrip(7L, LocalDateTime.of(2025, 1, 2, 3, 4));
+        when(tripService.getTripVersion(7L)).thenReturn(version);
+        when(tripService.getTripById(version, 7L)).thenReturn(TripResponse.builder()
+            .id(7L)
+            .title("trip")
+            .photos(new String[]{"trips/7/a.jpg"})
+            .createdAt(CREATED_AT)
+            .build());
+        ConditionalGet conditionalGet = new ConditionalGet(new HttpCacheProperties(Duration.ZERO, Duration.ofSeconds(30)));
+        return MockMvcBuilders
+            .standaloneSetup(new TripController(tripService, mock(TripBulkService.class), conditionalGet))
+            .setMessageConverters(converters.getConverters().toArray(new HttpMessageConverter<?>[0]))
+            .build();
+    }
+
+    // ใช้ ObjectMapper ของ Spring Boot (JavaTimeModule, ไม่เขียนวันที่เป็นตัวเลข) เหมือน JSON
+    private static void assertDecodesToTrip(ObjectMapper mapper, byte[] body) throws Exception {
+        JsonNode trip = mapper.readTree(body);
+        assertThat(trip.get("title").asText()).isEqualTo("trip");
+        assertThat(trip.get("photos").get(0).asText()).isEqualTo("trips/7/a.jpg");
+        assertThat(trip.get("createdAt").asText()).isEqualTo("2025-01-02T03:04:05Z");
+    }
+}
@@ -0,0 +1,78 @@
+package com.techup.controller;
+
+import com.techup.config.HttpCacheProperties;
+import com.techup.dto.ResourceVersion;
+import com.techup.security.TooManyAttemptsException;
+import com.techup.service.TripService;
+import com.techup.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * exception แบบเดียวกันได้ status และ body เดียวกันไม่ว่ามาจาก controller ไหน
+ */
+class ApiExceptionHandlerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private final TripService tripService = mock(TripService.class);
+    private final MockMvc mockMvc = MockMvcBuilders
+        .standaloneSetup(new UserController(userService, tripService,
+            new ConditionalGet(new HttpCacheProperties(Duration.ZERO, Duration.ofSeconds(30)))))
+        .setControllerAdvice(new ApiExceptionHandler())
+        .build();
+
+    @Test
+    void illegalArgumentIsBadRequest() throws Exception {
+        when(tripService.getListVersion()).thenReturn(new ResourceVersion("\"trips-1\"", 0L));
+        when(tripService.getUserTrips(any(), eq(1L), eq("broken"), any()))
+            .thenThrow(new IllegalArgumentException("cursor ไม่ถูกต้อง"));
+
+        mockMvc.perform(get("/api/users/1/trips").param("cursor", "broken"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.success").value(false))
+            .andExpect(jsonPath("$.message").value("cursor ไม่ถูกต้อง"));
+    }
+
+    @Test
+    void tooManyAttemptsIs429WithRetryAfterRoundedUp() throws Exception {
+        when(userService.login(any(), anyString()))
+            .thenThrow(new TooManyAttemptsException("ลองใหม่ภายหลัง", Duration.ofMillis(1500)));
+
+        mockMvc.perform(login())
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    @Test
+    void rejectedExecutionIs503() throws Exception {
+        when(userService.login(any(), anyString())).thenThrow(new RejectedExecutionException("busy"));
+
+        mockMvc.perform(login())
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+    }
+
+    private static MockHttpServletRequestBuilder login() {
+        return post("/api/users/login")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\":\"a@example.com\",\"password\":\"x\"}");
+    }
+}
@@ -0,0 +1,85 @@
+package com.techup.controller;
+
+import com.techup.config.HttpCacheProperties;
+import com.techup.dto.ResourceVersion;
+import com.techup.dto.TripResponse;
+import com.techup.service.TripBulkService;
+import com.techup.service.TripService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET ที่ client มีเวอร์ชันล่าสุดอยู่แล้วต้องได้ 304 โดยไม่โหลดข้อมูล
+ */
+class TripControllerConditionalGetTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2025, 1, 2, 3, 4, 5, 678_000);
+    private static final ResourceVersion TRIP_VERSION = ResourceVersion.ofTrip(7L, UPDATED_AT);
+    private static final ResourceVersion LIST_VERSION = ResourceVersion.ofCollection(
+        "trips", 42, OffsetDateTime.of(UPDATED_AT, ZoneOffset.UTC));
+
+    private TripService tripService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        tripService = mock(TripService.class);
+        ConditionalGet conditionalGet = new ConditionalGet(
+            new HttpCacheProperties(Duration.ZERO, Duration.ofSeconds(30)));
+        mockMvc = MockMvcBuilders.standaloneSetup(new TripController(tripService, mock(TripBulkService.class), conditionalGet)).build();
+        when(tripService.getTripVersion(7L)).thenReturn(TRIP_VERSION);
+        when(tripService.getListVersion()).thenReturn(LIST_VERSION);
+    }
+
+    @Test
+    void detailReturnsValidatorsAndCacheControl() throws Exception {
+        when(tripService.getTripById(TRIP_VERSION, 7L)).thenReturn(TripResponse.builder().id(7L).title("trip").build());
+
+        mockMvc.perform(get("/api/trips/7"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, TRIP_VERSION.etag()))
+            .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/")))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=0, must-revalidate, public, s-maxage=30"))
+            .andExpect(jsonPath("$.title").value("trip"));
+    }
+
+    @Test
+    void matchingEtagIsAnsweredWithoutLoadingTheTrip() throws Exception {
+        mockMvc.perform(get("/api/trips/7").header(HttpHeaders.IF_NONE_MATCH, TRIP_VERSION.etag()))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, TRIP_VERSION.etag()));
+
+        verify(tripService, never()).getTripById(any(), any());
+    }
+
+    @Test
+    void listsUseTheCollectionVersion() throws Exception {
+        mockMvc.perform(get("/api/trips/feed").header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 02 Jan 2025 03:04:05 GMT"))
+            .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/trips/feed").header(HttpHeaders.IF_NONE_MATCH, "\"trips-41\""))
+            .andExpect(status().isOk());
+
+        // body โหลดด้วย version เดียวกับ ETag ที่ตอบไป
+        verify(tripService).getFeed(LIST_VERSION, null, null);
+    }
+}
@@ -0,0 +1,60 @@
+package com.techup.controller;
+
+import com.techup.config.HttpCacheProperties;
+import com.techup.image.ImageProcessingBusyException;
+import com.techup.service.TripBulkService;
+import com.techup.service.TripService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * คิวย่อรูปเต็มต้องตอบ 503 + Retry-After ให้ client ลองใหม่ ไม่ใช่ 500
+ */
+class TripControllerPhotoUploadTest {
+
+    private final TripService tripService = mock(TripService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TripController(tripService,
+        mock(TripBulkService.class),
+        new ConditionalGet(new HttpCacheProperties(Duration.ZERO, Duration.ofSeconds(30))))).build();
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void fullImageQueueIsAnsweredWith503AndRetryAfter() throws Exception {
+        UsernamePasswordAuthenticationToken authentication =
+            new UsernamePasswordAuthenticationToken("a@example.com", null, List.of());
+        authentication.setDetails(3L);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        when(tripService.uploadPhotos(eq(7L), anyList(), any())).thenThrow(
+            new ImageProcessingBusyException("busy", new RejectedExecutionException("queue full")));
+
+        mockMvc.perform(multipart("/api/trips/7/photos")
+                .file(new MockMultipartFile("photos", "a.jpg", "image/jpeg", new byte[]{1})))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+            .andExpect(jsonPath("$.success").value(false));
+    }
+}
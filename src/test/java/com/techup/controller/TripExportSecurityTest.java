@@ -0,0 +1,112 @@
+package com.techup.controller;
+
+import com.techup.config.SecurityConfig;
+import com.techup.security.JwtAuthenticationCache;
+import com.techup.security.JwtAuthenticationFilter;
+import com.techup.security.JwtService;
+import com.techup.service.TripExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/trips/export ผ่าน security filter chain จริง (SecurityConfig + JwtAuthenticationFilter)
+ * ไม่มี token ได้ 401 ส่วน token ที่ถูกต้องได้ NDJSON
+ */
+@SpringBootTest(
+    classes = {SecurityConfig.class, JwtAuthenticationFilter.class, JwtAuthenticationCache.class, JwtService.class,
+        TripExportController.class, TripExportSecurityTest.Metrics.class},
+    properties = {
+        "jwt.secret=test-secret-key-that-is-long-enough-for-hs256",
+        "jwt.expiration=60000"
+    })
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+    WebMvcAutoConfiguration.class, SecurityAutoConfiguration.class})
+@AutoConfigureMockMvc
+class TripExportSecurityTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoBean
+    private TripExportService tripExportService;
+
+    @MockitoBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    void exportWithoutTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(export())
+            .andExpect(status().isUnauthorized());
+
+        verify(tripExportService, never()).exportNdjson(anyLong(), any());
+    }
+
+    @Test
+    void exportWithInvalidTokenIsUnauthorized() throws Exception {
+        mockMvc.perform(export().header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void exportWithValidTokenStreamsNdjson() throws Exception {
+        when(userDetailsService.loadUserByUsername("a@example.com"))
+            .thenReturn(User.withUsername("a@example.com").password("x").authorities("USER").build());
+        when(tripExportService.exportNdjson(anyLong(), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+        String token = jwtService.generateToken(1L, "a@example.com");
+
+        mockMvc.perform(export().header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    // DispatcherServlet map ที่ "/" บน Tomcat ได้ servletPath เป็น path เต็ม (MockMvc ค่าเริ่มต้นเป็น "")
+    // filter ตัดสินใจจาก servletPath จึงต้องตั้งให้เหมือนของจริง
+    private static MockHttpServletRequestBuilder export() {
+        return get("/api/trips/export").servletPath("/api/trips/export");
+    }
+}
@@ -0,0 +1,39 @@
+package com.techup.http;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CircuitBreakerInterceptorTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreakerInterceptor circuitBreaker =
+        new CircuitBreakerInterceptor(1, Duration.ofSeconds(30), now::get);
+
+    @Test
+    void runtimeExceptionInTheHalfOpenTrialReopensTheCircuit() throws Exception {
+        Interceptor.Chain chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(new Request.Builder().url("http://storage.test/").build());
+        when(chain.proceed(any())).thenThrow(new IllegalStateException("unexpected"));
+
+        assertThatThrownBy(() -> circuitBreaker.intercept(chain)).isInstanceOf(IllegalStateException.class);
+        assertThat(circuitBreaker.status()).isEqualTo(CircuitBreakerInterceptor.Status.OPEN);
+
+        // หมดเวลาเปิดวงจร: call ทดลองโยน RuntimeException ต้องกลับไป OPEN ไม่ค้าง HALF_OPEN
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThatThrownBy(() -> circuitBreaker.intercept(chain)).isInstanceOf(IllegalStateException.class);
+        assertThat(circuitBreaker.status()).isEqualTo(CircuitBreakerInterceptor.Status.OPEN);
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThatThrownBy(() -> circuitBreaker.intercept(chain)).isInstanceOf(IllegalStateException.class);
+    }
+}
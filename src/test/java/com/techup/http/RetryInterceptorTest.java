@@ -0,0 +1,68 @@
+package com.techup.http;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryInterceptorTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private final OkHttpClient client = new OkHttpClient.Builder()
+        .addInterceptor(new RetryInterceptor(3, Duration.ofMillis(1), Duration.ofMillis(5)))
+        .build();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(200));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void plainPostIsNotRetried() throws IOException {
+        try (Response response = client.newCall(post().build()).execute()) {
+            assertThat(response.code()).isEqualTo(503);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void upsertPostAndIdempotentMethodsAreRetried() throws IOException {
+        try (Response response = client.newCall(post().header(RetryInterceptor.UPSERT_HEADER, "true").build())
+                .execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(2);
+
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(200));
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/")).delete().build())
+                .execute()) {
+            assertThat(response.code()).isEqualTo(200);
+        }
+        assertThat(server.getRequestCount()).isEqualTo(4);
+    }
+
+    private Request.Builder post() {
+        return new Request.Builder()
+            .url(server.url("/storage/v1/object/trips/a.jpg"))
+            .post(RequestBody.create(new byte[]{1, 2, 3}, MediaType.parse("image/jpeg")));
+    }
+}
@@ -0,0 +1,88 @@
+package com.techup.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImageProcessorTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ImageProcessor imageProcessor = new ImageProcessor(executor, 40_000_000L);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void createsJpegVariantsWithinTheirMaxEdge() throws IOException {
+        ProcessedImage processed = imageProcessor.process(png(3000, 2000, BufferedImage.TYPE_INT_ARGB));
+
+        assertThat(processed.variants()).containsOnlyKeys("full", "medium", "thumb");
+        assertThat(read(processed.variants().get("full")).getWidth()).isEqualTo(2048);
+        assertThat(read(processed.variants().get("medium")).getWidth()).isEqualTo(1080);
+        BufferedImage thumb = read(processed.variants().get("thumb"));
+        assertThat(thumb.getWidth()).isEqualTo(320);
+        assertThat(thumb.getHeight()).isEqualTo(213);
+    }
+
+    @Test
+    void smallImagesAreNotUpscaledAndCarryNoExif() throws IOException {
+        ProcessedImage processed = imageProcessor.process(png(200, 100, BufferedImage.TYPE_INT_RGB));
+
+        byte[] thumb = processed.variants().get("thumb");
+        assertThat(read(thumb).getWidth()).isEqualTo(200);
+        assertThat(new String(thumb, StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+    }
+
+    @Test
+    void rejectsImagesAboveThePixelLimit() throws IOException {
+        ImageProcessor strict = new ImageProcessor(executor, 10_000L);
+        MockMultipartFile file = png(200, 100, BufferedImage.TYPE_INT_RGB);
+
+        assertThatThrownBy(() -> strict.process(file)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void fullQueueIsReportedAsBusy() throws IOException {
+        ExecutorService saturated = mock(ExecutorService.class);
+        when(saturated.submit(any(Callable.class))).thenThrow(new RejectedExecutionException("queue full"));
+        MockMultipartFile file = png(10, 10, BufferedImage.TYPE_INT_RGB);
+
+        assertThatThrownBy(() -> new ImageProcessor(saturated, 40_000_000L).process(file))
+            .isInstanceOf(ImageProcessingBusyException.class);
+    }
+
+    @Test
+    void webpIsNotProcessed() {
+        assertThat(imageProcessor.canProcess("image/webp")).isFalse();
+        assertThat(imageProcessor.canProcess("image/png")).isTrue();
+    }
+
+    private static MockMultipartFile png(int width, int height, int type) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), "png", output);
+        return new MockMultipartFile("photos", "photo.png", "image/png", output.toByteArray());
+    }
+
+    private static BufferedImage read(byte[] jpeg) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(jpeg));
+    }
+}
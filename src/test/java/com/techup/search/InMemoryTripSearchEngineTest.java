@@ -0,0 +1,68 @@
+package com.techup.search;
+
+import com.techup.dto.TripResponse;
+import com.techup.repository.TripRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InMemoryTripSearchEngineTest {
+
+    private TripRepository tripRepository;
+    private InMemoryTripSearchEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        tripRepository = mock(TripRepository.class);
+        when(tripRepository.findSearchDocuments()).thenReturn(List.of(
+            document(1L, "เที่ยวเชียงใหม่ดูทะเลหมอก", "ดอยอินทนนท์", "north"),
+            document(2L, "ทะเลภูเก็ต", "ดำน้ำดูปะการัง ทะเลใส", "sea"),
+            document(3L, "Bangkok street food", "เยาวราช", "food")
+        ));
+        when(tripRepository.findResponsesByIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> TripResponse.builder().id(id).build()).toList();
+        });
+        engine = new InMemoryTripSearchEngine(tripRepository);
+    }
+
+    @Test
+    void matchesThaiWordsInsideUnspacedText() {
+        assertThat(ids(engine.search("เชียงใหม่", 0, 20))).containsExactly(1L);
+        assertThat(ids(engine.search("อินทนนท์", 0, 20))).containsExactly(1L);
+    }
+
+    @Test
+    void ranksByNumberOfMatches() {
+        // ทริป 2 มีคำว่า "ทะเล" สองครั้ง
+        assertThat(ids(engine.search("ทะเล", 0, 20))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void requiresEveryQueryWordAndIsCaseInsensitive() {
+        assertThat(ids(engine.search("STREET Food", 0, 20))).containsExactly(3L);
+        assertThat(ids(engine.search("ทะเล ภูเก็ต", 0, 20))).containsExactly(2L);
+    }
+
+    @Test
+    void pagesResults() {
+        assertThat(ids(engine.search("ทะเล", 1, 1))).containsExactly(1L);
+        assertThat(engine.search("ทะเล", 2, 1)).isEmpty();
+    }
+
+    private static TripSearchDocument document(Long id, String title, String description, String tag) {
+        return new TripSearchDocument(id,
+            ThaiTextTokenizer.searchTextOf(title, description, new String[]{tag}));
+    }
+
+    private static List<Long> ids(List<TripResponse> responses) {
+        return responses.stream().map(TripResponse::getId).toList();
+    }
+}
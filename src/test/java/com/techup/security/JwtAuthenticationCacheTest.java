@@ -0,0 +1,75 @@
+package com.techup.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationCacheTest {
+
+    private static final String EMAIL = "traveller@example.com";
+
+    private JwtService jwtService;
+    private UserDetailsService userDetailsService;
+    private JwtAuthenticationCache cache;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", "0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(jwtService, "keyId", "k1");
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 60_000L);
+        jwtService.init();
+
+        userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(EMAIL)).thenReturn(
+            User.withUsername(EMAIL).password("hash").authorities("USER").build());
+
+        cache = new JwtAuthenticationCache(jwtService, userDetailsService, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void repeatedTokenIsResolvedWithoutLoadingTheUserAgain() {
+        String token = jwtService.generateToken(42L, EMAIL);
+
+        JwtAuthenticationCache.CachedAuthentication first = cache.authenticate(token);
+        JwtAuthenticationCache.CachedAuthentication second = cache.authenticate(token);
+
+        assertThat(first.userId()).isEqualTo(42L);
+        assertThat(second).isSameAs(first);
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void invalidTokenIsRejectedAndNotCached() {
+        String token = jwtService.generateToken(42L, EMAIL) + "tampered";
+
+        assertThatThrownBy(() -> cache.authenticate(token)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> cache.authenticate(token)).isInstanceOf(RuntimeException.class);
+        verify(userDetailsService, times(0)).loadUserByUsername(EMAIL);
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceItsKeyIsRetired() {
+        String token = jwtService.generateToken(42L, EMAIL);
+        cache.authenticate(token);
+
+        jwtService.rotate("k2", "fedcba9876543210fedcba9876543210fedcba9876543210");
+        assertThat(cache.authenticate(token).userId()).isEqualTo(42L);
+
+        jwtService.retire("k1");
+        assertThatThrownBy(() -> cache.authenticate(token)).isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> cache.authenticate(token)).isInstanceOf(RuntimeException.class);
+        verify(userDetailsService, times(1)).loadUserByUsername(EMAIL);
+    }
+}
@@ -0,0 +1,78 @@
+package com.techup.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtKeyRefresherTest {
+
+    private static final String SECRET_K1 = "k1-secret-0123456789abcdef0123456789abcdef";
+    private static final String SECRET_K2 = "k2-secret-0123456789abcdef0123456789abcdef";
+
+    @TempDir
+    Path dir;
+
+    private JwtService jwtService;
+    private Path keysFile;
+    private JwtKeyRefresher refresher;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_K1);
+        ReflectionTestUtils.setField(jwtService, "keyId", "k1");
+        ReflectionTestUtils.setField(jwtService, "verificationKeys", "");
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 60_000L);
+        jwtService.init();
+
+        keysFile = dir.resolve("jwt-keys.properties");
+        refresher = new JwtKeyRefresher(jwtService, keysFile.toString());
+    }
+
+    @Test
+    void newKeyIsTrustedThenActivatedThenTheOldKeyIsRetired() throws IOException {
+        String oldToken = jwtService.generateToken(5L, "a@example.com");
+
+        // ขั้นที่ 1: ประกาศ k2 ให้ verify ได้ก่อน ยังเซ็นด้วย k1
+        write("jwt.key-id=k1\njwt.secret=" + SECRET_K1 + "\njwt.verification-keys=k2:" + SECRET_K2 + "\n");
+        refresher.refresh();
+        assertThat(jwtService.activeKeyId()).isEqualTo("k1");
+        assertThat(jwtService.keyIds()).containsExactlyInAnyOrder("k1", "k2");
+
+        // ขั้นที่ 2: สลับไปเซ็นด้วย k2 token เดิมยังใช้ได้
+        write("jwt.key-id=k2\njwt.secret=" + SECRET_K2 + "\njwt.verification-keys=k1:" + SECRET_K1 + "\n");
+        refresher.refresh();
+        String newToken = jwtService.generateToken(6L, "b@example.com");
+        assertThat(jwtService.verify(newToken).keyId()).isEqualTo("k2");
+        assertThat(jwtService.isTokenValid(oldToken)).isTrue();
+
+        // ขั้นที่ 3: เอา k1 ออกจากไฟล์
+        write("jwt.key-id=k2\njwt.secret=" + SECRET_K2 + "\n");
+        refresher.refresh();
+        assertThat(jwtService.keyIds()).containsExactly("k2");
+        assertThat(jwtService.isTokenValid(oldToken)).isFalse();
+        assertThat(jwtService.isTokenValid(newToken)).isTrue();
+    }
+
+    @Test
+    void missingOrIncompleteFileKeepsTheCurrentKeys() throws IOException {
+        refresher.refresh();
+        assertThat(jwtService.keyIds()).containsExactly("k1");
+
+        write("jwt.verification-keys=k2:" + SECRET_K2 + "\n");
+        refresher.refresh();
+        assertThat(jwtService.activeKeyId()).isEqualTo("k1");
+        assertThat(jwtService.keyIds()).containsExactly("k1");
+    }
+
+    private void write(String content) throws IOException {
+        Files.writeString(keysFile, content);
+    }
+}
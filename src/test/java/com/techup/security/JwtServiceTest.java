@@ -0,0 +1,73 @@
+package com.techup.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private static final String SECRET_K1 = "k1-secret-0123456789abcdef0123456789abcdef";
+    private static final String SECRET_K2 = "k2-secret-0123456789abcdef0123456789abcdef";
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_K1);
+        ReflectionTestUtils.setField(jwtService, "keyId", "k1");
+        ReflectionTestUtils.setField(jwtService, "verificationKeys", "");
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 60_000L);
+        jwtService.init();
+    }
+
+    @Test
+    void verifiesTokenInOneParse() {
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(5L, "a@example.com"));
+
+        assertThat(verified.userId()).isEqualTo(5L);
+        assertThat(verified.email()).isEqualTo("a@example.com");
+        assertThat(verified.expiresAt()).isAfter(new Date().toInstant());
+    }
+
+    @Test
+    void tokensSignedBeforeRotationStayValidUntilTheKeyIsRetired() {
+        String oldToken = jwtService.generateToken(5L, "a@example.com");
+
+        jwtService.rotate("k2", SECRET_K2);
+        String newToken = jwtService.generateToken(6L, "b@example.com");
+
+        assertThat(jwtService.getUserId(oldToken)).isEqualTo(5L);
+        assertThat(jwtService.getUserId(newToken)).isEqualTo(6L);
+
+        jwtService.retire("k1");
+        assertThat(jwtService.isTokenValid(oldToken)).isFalse();
+        assertThat(jwtService.isTokenValid(newToken)).isTrue();
+    }
+
+    @Test
+    void tokenWithoutKidIsVerifiedWithTheConfiguredSecret() {
+        // token ที่ออกก่อนมี kid header
+        String legacyToken = Jwts.builder()
+                .setSubject("9")
+                .claim("email", "legacy@example.com")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET_K1.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThat(jwtService.getUserId(legacyToken)).isEqualTo(9L);
+    }
+
+    @Test
+    void activeKeyCannotBeRetired() {
+        assertThatThrownBy(() -> jwtService.retire("k1")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
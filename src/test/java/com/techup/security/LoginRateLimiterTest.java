@@ -0,0 +1,70 @@
+package com.techup.security;
+
+import com.techup.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final LoginRateLimiter rateLimiter = new LoginRateLimiter(
+        new AuthProperties.RateLimit(3, Duration.ofMinutes(15), 5, Duration.ofMinutes(1), 1000),
+        now::get);
+
+    @Test
+    void failedLoginsLockTheEmailUntilTheOldestFailureLeavesTheWindow() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquireLogin("Bob@Example.com", "10.0.0." + i);
+            rateLimiter.recordLoginFailure("bob@example.com");
+            advance(Duration.ofMinutes(1));
+        }
+
+        // ครั้งแรกที่ผิดหลุด window ใน 12 นาที (15 - 3)
+        assertThatThrownBy(() -> rateLimiter.acquireLogin("bob@example.com", "10.0.0.9"))
+            .isInstanceOf(TooManyAttemptsException.class)
+            .satisfies(e -> assertThat(((TooManyAttemptsException) e).getRetryAfter()).isEqualTo(Duration.ofMinutes(12)));
+
+        advance(Duration.ofMinutes(12));
+        assertThatCode(() -> rateLimiter.acquireLogin("bob@example.com", "10.0.0.9")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void successfulLoginClearsFailures() {
+        rateLimiter.recordLoginFailure("bob@example.com");
+        rateLimiter.recordLoginFailure("bob@example.com");
+        rateLimiter.recordLoginSuccess("bob@example.com");
+        rateLimiter.recordLoginFailure("bob@example.com");
+        rateLimiter.recordLoginFailure("bob@example.com");
+
+        assertThatCode(() -> rateLimiter.acquireLogin("bob@example.com", "10.0.0.1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void everyAttemptCountsAgainstTheIpWindow() {
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquireRegister("10.0.0.1");
+            advance(Duration.ofSeconds(10));
+        }
+
+        assertThatThrownBy(() -> rateLimiter.acquireLogin("new@example.com", "10.0.0.1"))
+            .isInstanceOf(TooManyAttemptsException.class);
+        // IP อื่นไม่เกี่ยว
+        assertThatCode(() -> rateLimiter.acquireLogin("new@example.com", "10.0.0.2")).doesNotThrowAnyException();
+
+        // sliding window: ครั้งแรก (50 วินาทีก่อน) หลุดออกไปหลังจากนี้ 10 วินาที
+        advance(Duration.ofSeconds(10));
+        assertThatCode(() -> rateLimiter.acquireRegister("10.0.0.1")).doesNotThrowAnyException();
+        assertThatThrownBy(() -> rateLimiter.acquireRegister("10.0.0.1"))
+            .isInstanceOf(TooManyAttemptsException.class);
+    }
+
+    private void advance(Duration duration) {
+        now.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,46 @@
+package com.techup.security;
+
+import com.techup.config.AuthProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnknownEmailCacheTest {
+
+    private final UnknownEmailCache cache = new UnknownEmailCache(new AuthProperties(
+        new AuthProperties.Password(10, 1, 1),
+        new AuthProperties.RateLimit(100, Duration.ofMinutes(15), 100, Duration.ofMinutes(1), 1000),
+        new AuthProperties.UnknownEmailCache(1000, Duration.ofMinutes(1))));
+
+    // ลอง login ก่อน register ครั้งเดียวต้องไม่ทำให้ถูกจำว่าไม่มีผู้ใช้นี้
+    @Test
+    void onlyRepeatedMissesAreRemembered() {
+        cache.recordMiss("bob@example.com");
+        assertThat(cache.isUnknown("bob@example.com")).isFalse();
+
+        cache.recordMiss("bob@example.com");
+        assertThat(cache.isUnknown("bob@example.com")).isTrue();
+    }
+
+    @Test
+    void registerWithAnyCaseForgetsTheEmail() {
+        cache.recordMiss("bob@example.com");
+        cache.recordMiss("bob@example.com");
+
+        cache.forget(" Bob@Example.com");
+
+        assertThat(cache.isUnknown("bob@example.com")).isFalse();
+    }
+
+    // query เทียบตัวอักษรตรงตัว: email ที่พลาดคนละแบบตัวพิมพ์ไม่ใช่ email เดียวกัน
+    @Test
+    void missesForAnotherCaseDoNotHideTheEmail() {
+        cache.recordMiss("Bob@example.com");
+        cache.recordMiss("Bob@example.com");
+
+        assertThat(cache.isUnknown("bob@example.com")).isFalse();
+        assertThat(cache.isUnknown("Bob@example.com")).isTrue();
+    }
+}
@@ -0,0 +1,27 @@
+package com.techup.service;
+
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MultipartFileRequestBodyTest {
+
+    @Test
+    void streamsFileContentAndCanBeWrittenAgainForRetries() throws Exception {
+        byte[] content = "jpeg-bytes".getBytes(StandardCharsets.UTF_8);
+        MultipartFileRequestBody body = new MultipartFileRequestBody(
+            new MockMultipartFile("photos", "a.jpg", "image/jpeg", content));
+
+        assertThat(body.contentLength()).isEqualTo(content.length);
+        assertThat(body.contentType()).hasToString("image/jpeg");
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Buffer sent = new Buffer();
+            body.writeTo(sent);
+            assertThat(sent.readByteArray()).isEqualTo(content);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.techup.service;
+
+import com.techup.entity.StorageDeletion;
+import com.techup.repository.StorageDeletionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageDeletionWorkerTest {
+
+    private final StorageDeletionRepository repository = mock(StorageDeletionRepository.class);
+    private final SupabaseStorageService storageService = mock(SupabaseStorageService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StorageDeletionWorker worker =
+        new StorageDeletionWorker(repository, storageService, transactionTemplate, meterRegistry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(worker, "batchSize", 2);
+        ReflectionTestUtils.setField(worker, "maxBatchesPerRun", 5);
+        ReflectionTestUtils.setField(worker, "lease", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(worker, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(worker, "maxBackoff", Duration.ofHours(1));
+        ReflectionTestUtils.setField(worker, "splitAfterFailures", 3);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 5);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void drainsFullBatchesWithOneBulkDeleteEach() throws Exception {
+        when(repository.lockDue(any(), anyInt()))
+            .thenReturn(List.of(deletion(1L, "trips/1/a.jpg"), deletion(2L, "trips/1/b.jpg")))
+            .thenReturn(List.of(deletion(3L, "trips/2/c.jpg")));
+
+        worker.drain();
+
+        verify(storageService).deleteFiles(List.of("trips/1/a.jpg", "trips/1/b.jpg"));
+        verify(storageService).deleteFiles(List.of("trips/2/c.jpg"));
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void failedBatchIsKeptAndRetriedLater() throws Exception {
+        StorageDeletion deletion = deletion(1L, "trips/1/a.jpg");
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(deletion));
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(deletion));
+        doThrow(new IOException("Storage circuit breaker is open")).when(storageService).deleteFiles(any());
+
+        worker.drain();
+
+        verify(repository, never()).deleteAllByIdInBatch(any());
+        assertThat(deletion.getAttempts()).isEqualTo(1);
+        assertThat(deletion.getLastError()).isEqualTo("Storage circuit breaker is open");
+        assertThat(deletion.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(25));
+    }
+
+    @Test
+    void rowsThatKeepFailingInBulkAreRetriedOneByOne() throws Exception {
+        StorageDeletion first = deletion(1L, "trips/1/a.jpg", 3);
+        StorageDeletion second = deletion(2L, "trips/1/b.jpg", 3);
+        StorageDeletion fresh = deletion(3L, "trips/2/c.jpg", 0);
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(first, second, fresh), List.of());
+
+        worker.drain();
+
+        // สองแถวที่ล้มเหลวมาแล้ว 3 ครั้งถูกลบแยกกัน แถวใหม่ยังไปทาง bulk
+        verify(storageService).deleteFiles(List.of("trips/1/a.jpg"));
+        verify(storageService).deleteFiles(List.of("trips/1/b.jpg"));
+        verify(storageService).deleteFiles(List.of("trips/2/c.jpg"));
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(repository).deleteAllByIdInBatch(List.of(3L));
+    }
+
+    @Test
+    void oneByOneStopsAtTheFirstFailureAndReschedulesTheRest() throws Exception {
+        StorageDeletion healthy = deletion(1L, "trips/1/a.jpg", 3);
+        StorageDeletion poison = deletion(2L, "trips/1/poison.jpg", 3);
+        StorageDeletion untried = deletion(3L, "trips/1/c.jpg", 3);
+        StorageDeletion fresh = deletion(4L, "trips/2/d.jpg", 0);
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(healthy, poison, untried, fresh));
+        when(repository.findAllById(List.of(2L, 3L))).thenReturn(List.of(poison, untried));
+        when(repository.findAllById(List.of(4L))).thenReturn(List.of(fresh));
+        doThrow(new IOException("Storage responded 503"))
+            .when(storageService).deleteFiles(List.of("trips/1/poison.jpg"));
+
+        worker.drain();
+
+        // หยุดทั้งรอบ: ไม่ลองแถวที่เหลือและไม่ยิง bulk ใส่ Storage ที่เพิ่งล้มเหลว
+        verify(storageService, never()).deleteFiles(List.of("trips/1/c.jpg"));
+        verify(storageService, never()).deleteFiles(List.of("trips/2/d.jpg"));
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+        verify(repository).lockDue(any(), anyInt());
+        assertThat(poison.getLastError()).isEqualTo("Storage responded 503");
+        assertThat(untried.getLastError()).isEqualTo("Storage responded 503");
+        assertThat(untried.getNextAttemptAt()).isAfter(LocalDateTime.now().plusMinutes(3));
+        assertThat(fresh.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(25));
+        assertThat(poison.getFailedAt()).isNull();
+    }
+
+    @Test
+    void rowIsMarkedFailedAfterMaxAttempts() throws Exception {
+        StorageDeletion deletion = deletion(1L, "trips/1/poison.jpg", 4);
+        when(repository.lockDue(any(), anyInt())).thenReturn(List.of(deletion));
+        when(repository.findAllById(List.of(1L))).thenReturn(List.of(deletion));
+        doThrow(new IOException("Storage responded 400")).when(storageService).deleteFiles(any());
+
+        worker.drain();
+
+        assertThat(deletion.getAttempts()).isEqualTo(5);
+        assertThat(deletion.getFailedAt()).isNotNull();
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void failedRowsAreExposedAsAGauge() {
+        when(repository.countByFailedAtIsNotNull()).thenReturn(2L);
+
+        worker.registerMetrics();
+
+        assertThat(meterRegistry.get(StorageDeletionWorker.FAILED_METRIC_NAME).gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToTheCap() {
+        assertThat(worker.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(worker.backoff(3)).isEqualTo(Duration.ofMinutes(2));
+        assertThat(worker.backoff(50)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private static StorageDeletion deletion(Long id, String objectPath) {
+        return deletion(id, objectPath, 0);
+    }
+
+    // attempts = จำนวนครั้งที่ล้มเหลวมาก่อนรอบนี้
+    private static StorageDeletion deletion(Long id, String objectPath, int attempts) {
+        return StorageDeletion.builder()
+            .id(id)
+            .objectPath(objectPath)
+            .attempts(attempts)
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,128 @@
+package com.techup.service;
+
+import com.techup.config.StorageHttpConfig;
+import com.techup.config.StorageHttpProperties;
+import com.techup.http.CircuitBreakerInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SupabaseStorageService กับ client จริงจาก StorageHttpConfig ยิงไปที่ MockWebServer
+ */
+class SupabaseStorageServiceTest {
+
+    private final MockWebServer server = new MockWebServer();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExecutorService httpExecutor;
+    private SupabaseStorageService storageService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server.start();
+
+        StorageHttpProperties properties = new StorageHttpProperties(
+            Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(5),
+            5, Duration.ofMinutes(1), 16, 8, 8, Duration.ofSeconds(1), true,
+            new StorageHttpProperties.Retry(3, Duration.ofMillis(1), Duration.ofMillis(5)),
+            new StorageHttpProperties.CircuitBreaker(2, Duration.ofMinutes(1)));
+        StorageHttpConfig config = new StorageHttpConfig();
+        CircuitBreakerInterceptor circuitBreaker = config.storageCircuitBreaker(properties, meterRegistry);
+        httpExecutor = config.storageHttpExecutor(true);
+
+        storageService = new SupabaseStorageService(
+            config.storageHttpClient(properties, circuitBreaker, meterRegistry, httpExecutor));
+        ReflectionTestUtils.setField(storageService, "supabaseUrl", server.url("/").toString().replaceAll("/$", ""));
+        ReflectionTestUtils.setField(storageService, "supabaseKey", "service-key");
+        ReflectionTestUtils.setField(storageService, "bucketName", "trips");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+        httpExecutor.close();
+    }
+
+    @Test
+    void uploadStreamsFileAndRetriesTransientErrors() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("{\"Key\":\"ok\"}"));
+
+        String key = storageService.uploadFile(photo(), 7L);
+
+        assertThat(key).startsWith("trips/7/").endsWith(".jpg");
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        server.takeRequest();
+        RecordedRequest retried = server.takeRequest();
+        assertThat(retried.getHeader("Authorization")).isEqualTo("Bearer service-key");
+        // upsert: ส่งซ้ำหลัง attempt แรกที่อาจสำเร็จไปแล้วไม่ได้ 400 Duplicate
+        assertThat(retried.getHeader("x-upsert")).isEqualTo("true");
+        assertThat(retried.getBody().readUtf8()).isEqualTo("jpeg-bytes");
+
+        assertThat(meterRegistry.get(StorageHttpConfig.METRIC_NAME).tag("outcome", "SUCCESS").timer().count())
+            .isEqualTo(1);
+        // byte ที่ส่งนับครั้งเดียวต่อ call แม้จะ retry
+        assertThat(meterRegistry.get(StorageHttpConfig.METRIC_NAME + ".request.size").summary().totalAmount())
+            .isEqualTo("jpeg-bytes".length());
+        assertThat(meterRegistry.get(StorageHttpConfig.METRIC_NAME + ".response.size").summary().totalAmount())
+            .isEqualTo("{\"Key\":\"ok\"}".length());
+    }
+
+    @Test
+    void circuitOpensAfterRepeatedFailuresAndFailsFast() {
+        for (int i = 0; i < 6; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+
+        // 2 call x 3 attempt ล้มเหลวครบ threshold
+        assertThatThrownBy(() -> storageService.uploadFile(photo(), 7L)).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> storageService.uploadFile(photo(), 7L)).isInstanceOf(IOException.class);
+        int requestsBeforeOpen = server.getRequestCount();
+
+        assertThatThrownBy(() -> storageService.uploadFile(photo(), 7L))
+            .isInstanceOf(CircuitBreakerInterceptor.CircuitOpenException.class);
+        assertThat(server.getRequestCount()).isEqualTo(requestsBeforeOpen);
+        assertThat(meterRegistry.get("storage.http.client.circuit.open").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteFilesSendsOneBulkRequest() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("[]"));
+
+        storageService.deleteFiles(List.of("trips/7/a.jpg", "trips/7/b.jpg"));
+
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("DELETE");
+        assertThat(request.getPath()).isEqualTo("/storage/v1/object/trips");
+        assertThat(request.getBody().readUtf8()).isEqualTo("{\"prefixes\":[\"trips/7/a.jpg\",\"trips/7/b.jpg\"]}");
+    }
+
+    @Test
+    void objectPathIsRelativeToTheBucket() {
+        String url = server.url("/storage/v1/object/public/trips/trips/7/a.jpg").toString();
+        assertThat(storageService.publicBaseUrl() + "trips/7/a.jpg").isEqualTo(url);
+        assertThat(storageService.objectPathOf(url)).isEqualTo("trips/7/a.jpg");
+        // key ที่ตัด prefix แล้ว ใช้ได้เหมือนเดิม
+        assertThat(storageService.objectPathOf("trips/7/a.jpg")).isEqualTo("trips/7/a.jpg");
+    }
+
+    private static MockMultipartFile photo() {
+        return new MockMultipartFile("photos", "a.jpg", "image/jpeg", "jpeg-bytes".getBytes());
+    }
+}
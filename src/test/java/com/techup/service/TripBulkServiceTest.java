@@ -0,0 +1,207 @@
+package com.techup.service;
+
+import com.techup.dto.BulkTripResponse;
+import com.techup.dto.BulkTripResult;
+import com.techup.dto.TripRequest;
+import com.techup.entity.Trip;
+import com.techup.entity.User;
+import com.techup.repository.TripRepository;
+import com.techup.repository.UserRepository;
+import com.techup.search.TripSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripBulkServiceTest {
+
+    private static final Long AUTHOR_ID = 3L;
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TripTagCountService tagCountService = mock(TripTagCountService.class);
+    private final TripListVersion tripListVersion = mock(TripListVersion.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final TripSearchEngine searchEngine = mock(TripSearchEngine.class);
+    private final TripBulkService bulkService = new TripBulkService(tripRepository, userRepository,
+        searchEngine, tagCountService, tripListVersion, transactionTemplate,
+        mock(SupabaseStorageService.class));
+
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 3);
+        ReflectionTestUtils.setField(bulkService, "maxItems", 10);
+
+        when(userRepository.findById(AUTHOR_ID)).thenReturn(Optional.of(user(AUTHOR_ID)));
+        when(transactionTemplate.execute(any())).thenAnswer(TripBulkServiceTest::inTransaction);
+        when(tripRepository.save(any(Trip.class))).thenAnswer(invocation -> {
+            Trip trip = invocation.getArgument(0);
+            trip.setId(ids.incrementAndGet());
+            return trip;
+        });
+    }
+
+    @Test
+    void invalidItemsFailAloneAndSideEffectsRunOncePerChunk() {
+        BulkTripResponse response = bulkService.upsert(
+            List.of(request("a", "sea"), request(" ", "sea"), request("c", "sea")), AUTHOR_ID);
+
+        assertThat(response.getResults()).extracting(BulkTripResult::getStatus).containsExactly(
+            BulkTripResult.Status.CREATED, BulkTripResult.Status.FAILED, BulkTripResult.Status.CREATED);
+        assertThat(response.getResults().get(1).getMessage()).isEqualTo("ต้องระบุ title");
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(1);
+
+        verify(tagCountService).applyDeltas(Map.of("sea", 2L));
+        verify(userRepository).incrementTripCount(AUTHOR_ID, 2);
+        verify(tripListVersion).bumpAfterCommit();
+    }
+
+    @Test
+    void failedChunkIsReportedWithoutStoppingLaterChunks() {
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 1);
+        doThrow(new DataIntegrityViolationException("boom"))
+            .doAnswer(TripBulkServiceTest::inTransaction)
+            .when(transactionTemplate).execute(any());
+
+        BulkTripResponse response = bulkService.upsert(List.of(request("a"), request("b")), AUTHOR_ID);
+
+        assertThat(response.getResults()).extracting(BulkTripResult::getStatus).containsExactly(
+            BulkTripResult.Status.FAILED, BulkTripResult.Status.CREATED);
+        // ข้อความจาก exception (SQL/constraint) ไม่หลุดไปถึง client
+        assertThat(response.getResults().get(0).getMessage()).isEqualTo("บันทึกไม่สำเร็จ");
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void updatesLoadTripsOnceAndRequireOwnership() {
+        Trip own = trip(1L, user(AUTHOR_ID));
+        Trip other = trip(2L, user(9L));
+        when(tripRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(own, other));
+
+        TripRequest first = request("new title");
+        first.setId(1L);
+        TripRequest second = request("new title");
+        second.setId(2L);
+        BulkTripResponse response = bulkService.upsert(List.of(first, second), AUTHOR_ID);
+
+        assertThat(response.getResults()).extracting(BulkTripResult::getStatus).containsExactly(
+            BulkTripResult.Status.UPDATED, BulkTripResult.Status.FAILED);
+        assertThat(own.getTitle()).isEqualTo("new title");
+        assertThat(other.getTitle()).isEqualTo("old");
+        verify(tripRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void nonFiniteCoordinatesFailValidation() {
+        TripRequest nan = request("nan", "sea");
+        nan.setLatitude(Double.NaN);
+        TripRequest infinite = request("infinite", "sea");
+        infinite.setLongitude(Double.POSITIVE_INFINITY);
+
+        BulkTripResponse response = bulkService.upsert(List.of(nan, infinite), AUTHOR_ID);
+
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BulkTripResult::getStatus)
+            .containsOnly(BulkTripResult.Status.FAILED);
+    }
+
+    @Test
+    void nullOrBlankPhotosFailValidation() {
+        TripRequest nullPhoto = request("null", "sea");
+        nullPhoto.setPhotos(Arrays.asList((String) null));
+        TripRequest blankPhoto = request("blank", "sea");
+        blankPhoto.setPhotos(List.of(" "));
+
+        BulkTripResponse response = bulkService.upsert(List.of(nullPhoto, blankPhoto), AUTHOR_ID);
+
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BulkTripResult::getMessage)
+            .containsOnly("photos ต้องไม่มีค่าว่าง");
+        verify(tripRepository, never()).save(any(Trip.class));
+    }
+
+    @Test
+    void tripsAreIndexedOnlyAfterChunkCommits() {
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 1);
+        doThrow(new DataIntegrityViolationException("boom")).doNothing()
+            .when(userRepository).incrementTripCount(AUTHOR_ID, 1);
+
+        BulkTripResponse response = bulkService.upsert(List.of(request("a"), request("b")), AUTHOR_ID);
+
+        // chunk แรก rollback: ทริปของ chunk นั้นไม่เข้า index
+        assertThat(response.getResults()).extracting(BulkTripResult::getStatus).containsExactly(
+            BulkTripResult.Status.FAILED, BulkTripResult.Status.CREATED);
+        verify(searchEngine, times(1)).index(any());
+        verify(searchEngine).index(argThat(trip -> "b".equals(trip.getTitle())));
+    }
+
+    @Test
+    void indexFailureAfterCommitDoesNotFailChunk() {
+        doThrow(new IllegalStateException("index down")).when(searchEngine).index(any());
+
+        BulkTripResponse response = bulkService.upsert(List.of(request("a"), request("b")), AUTHOR_ID);
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        verify(searchEngine, times(2)).index(any());
+    }
+
+    @Test
+    void nonPositiveChunkSizeFailsAtStartup() {
+        ReflectionTestUtils.setField(bulkService, "chunkSize", 0);
+
+        assertThatThrownBy(bulkService::validateConfig).isInstanceOf(IllegalStateException.class);
+    }
+
+    // จำลอง TransactionTemplate: เปิด synchronization, รัน callback แล้วเรียก afterCommit เมื่อสำเร็จเท่านั้น
+    private static Object inTransaction(InvocationOnMock invocation) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            return result;
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static TripRequest request(String title, String... tags) {
+        TripRequest request = new TripRequest();
+        request.setTitle(title);
+        request.setTags(List.of(tags));
+        return request;
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).email("user" + id + "@example.com").build();
+    }
+
+    private static Trip trip(Long id, User author) {
+        return Trip.builder().id(id).title("old").tags(new String[]{}).author(author).build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.techup.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techup.dto.TripResponse;
+import com.techup.repository.TripRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TripExportServiceTest {
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TripExportService exportService = new TripExportService(tripRepository, objectMapper);
+
+    @Test
+    void writesOneTripPerLineAndClosesTheCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        // 1200 แถวข้ามรอบ flush หลายรอบ
+        Stream<TripResponse> trips = LongStream.rangeClosed(11, 1210)
+            .mapToObj(id -> TripResponse.builder().id(id).title("ทริป " + id).build())
+            .onClose(() -> closed.set(true));
+        when(tripRepository.streamAllAfter(10L)).thenReturn(trips);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exportService.exportNdjson(10L, out)).isEqualTo(1200);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasSize(1201);
+        assertThat(lines[1200]).isEmpty();
+        assertThat(objectMapper.readTree(lines[0]).get("id").asLong()).isEqualTo(11);
+        assertThat(objectMapper.readTree(lines[1199]).get("title").asText()).isEqualTo("ทริป 1210");
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void emptyExportWritesNothing() throws Exception {
+        when(tripRepository.streamAllAfter(0L)).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(exportService.exportNdjson(0L, out)).isZero();
+        assertThat(out.size()).isZero();
+    }
+}
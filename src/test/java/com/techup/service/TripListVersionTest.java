@@ -0,0 +1,65 @@
+package com.techup.service;
+
+import com.techup.repository.TripRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TripListVersionTest {
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final TripListVersion listVersion = new TripListVersion(tripRepository);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void etagComesFromTheSequence() {
+        when(tripRepository.findListVersion()).thenReturn(42L);
+
+        assertThat(listVersion.current().etag()).isEqualTo("W/\"trips-42\"");
+    }
+
+    // เพิ่มก่อน commit แล้ว request ที่อ่านระหว่างนั้นจะ cache body เก่าไว้ใต้ version ใหม่
+    @Test
+    void bumpWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listVersion.bumpAfterCommit();
+        verify(tripRepository, never()).nextListVersion();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(tripRepository).nextListVersion();
+    }
+
+    @Test
+    void rolledBackWriteDoesNotBump() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        listVersion.bumpAfterCommit();
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(tripRepository, never()).nextListVersion();
+    }
+
+    @Test
+    void bumpFailureAfterCommitIsNotThrown() {
+        when(tripRepository.nextListVersion()).thenThrow(new IllegalStateException("db down"));
+
+        listVersion.bumpAfterCommit();
+
+        verify(tripRepository).nextListVersion();
+    }
+}
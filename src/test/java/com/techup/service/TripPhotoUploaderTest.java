@@ -0,0 +1,124 @@
+package com.techup.service;
+
+import com.techup.image.ImageProcessor;
+import com.techup.image.ProcessedImage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class TripPhotoUploaderTest {
+
+    private static final Long TRIP_ID = 1L;
+
+    private final SupabaseStorageService storageService = mock(SupabaseStorageService.class);
+    private final StorageDeletionQueue storageDeletionQueue = mock(StorageDeletionQueue.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ImageProcessor imageProcessor = mock(ImageProcessor.class);
+    private final TripPhotoUploader uploader =
+        new TripPhotoUploader(storageService, storageDeletionQueue, imageProcessor, executor);
+
+    @AfterEach
+    void shutdown() {
+        executor.close();
+    }
+
+    @Test
+    void uploadsRunConcurrentlyAndKeepFileOrder() throws Exception {
+        List<MultipartFile> files = List.of(file("a.jpg"), file("b.jpg"), file("c.jpg"));
+        // ทุกไฟล์ต้องเริ่มอัพโหลดก่อนไฟล์ใดจะเสร็จ ถ้าทำทีละไฟล์ latch จะ timeout
+        CountDownLatch allStarted = new CountDownLatch(files.size());
+        stubProcessing();
+        when(storageService.uploadBytes(anyString(), any(), eq("image/jpeg"))).thenAnswer(invocation -> {
+            allStarted.countDown();
+            if (!allStarted.await(5, TimeUnit.SECONDS)) {
+                throw new IOException("uploads did not overlap");
+            }
+            return "url/" + new String(invocation.<byte[]>getArgument(1), StandardCharsets.UTF_8);
+        });
+
+        assertThat(uploader.uploadAll(TRIP_ID, files)).extracting(UploadedPhoto::key)
+            .containsExactly("url/a.jpg", "url/b.jpg", "url/c.jpg");
+        verify(storageDeletionQueue, never()).enqueue(any());
+    }
+
+    @Test
+    void partialFailureQueuesUploadedPhotosForDeletion() throws Exception {
+        MultipartFile ok = file("ok.jpg");
+        MultipartFile broken = file("broken.jpg");
+        stubProcessing();
+        when(storageService.uploadBytes(anyString(), any(), eq("image/jpeg"))).thenAnswer(invocation -> {
+            String name = new String(invocation.<byte[]>getArgument(1), StandardCharsets.UTF_8);
+            if (name.equals("broken.jpg")) {
+                throw new IOException("Upload failed: boom");
+            }
+            return "url/" + name;
+        });
+
+        assertThatThrownBy(() -> uploader.uploadAll(TRIP_ID, List.of(ok, broken)))
+            .isInstanceOf(IOException.class)
+            .hasMessage("Upload failed: boom");
+        verify(storageDeletionQueue).enqueue(List.of("url/ok.jpg"));
+    }
+
+    @Test
+    void processedPhotoUploadsEveryVariantUnderOneBaseName() throws Exception {
+        MultipartFile photo = file("a.jpg");
+        when(imageProcessor.canProcess("image/jpeg")).thenReturn(true);
+        when(imageProcessor.process(photo)).thenReturn(new ProcessedImage(new LinkedHashMap<>(Map.of(
+            "full", new byte[]{1}, "medium", new byte[]{2}, "thumb", new byte[]{3}))));
+        when(storageService.newObjectPath(TRIP_ID)).thenReturn("trips/1/base");
+        when(storageService.uploadBytes(anyString(), any(), eq("image/jpeg")))
+            .thenAnswer(invocation -> "url/" + invocation.getArgument(0));
+
+        UploadedPhoto uploaded = uploader.uploadAll(TRIP_ID, List.of(photo)).get(0);
+
+        assertThat(uploaded.key()).isEqualTo("url/trips/1/base.jpg");
+        assertThat(uploaded.variants()).containsEntry("medium", "url/trips/1/base_medium.jpg")
+            .containsEntry("thumb", "url/trips/1/base_thumb.jpg")
+            .doesNotContainKey("full");
+            }
+
+    // ไฟล์ที่ encode ใหม่ไม่ได้ (เช่น WebP) ต้องไม่ถูกอัพโหลดตามต้นฉบับ เพราะยังมี EXIF อยู่
+    @Test
+    void unprocessablePhotoIsRejectedInsteadOfStoredAsIs() {
+        MultipartFile webp = new MockMultipartFile("photos", "a.webp", "image/webp", new byte[]{1, 2, 3});
+
+        assertThatThrownBy(() -> uploader.uploadAll(TRIP_ID, List.of(webp)))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(storageService);
+    }
+
+    // รูปที่ย่อแล้วมีขนาดเดียว (full) เนื้อไฟล์เป็นชื่อไฟล์ต้นฉบับ ให้ stub ของ storage แยกไฟล์ได้
+    private void stubProcessing() throws IOException {
+        when(imageProcessor.canProcess("image/jpeg")).thenReturn(true);
+        when(imageProcessor.process(any())).thenAnswer(invocation -> new ProcessedImage(Map.of("full",
+            invocation.<MultipartFile>getArgument(0).getOriginalFilename().getBytes(StandardCharsets.UTF_8))));
+        when(storageService.newObjectPath(TRIP_ID)).thenReturn("trips/1/base");
+    }
+
+    private static MultipartFile file(String name) {
+        return new MockMultipartFile("photos", name, "image/jpeg", new byte[]{1, 2, 3});
+    }
+}
@@ -0,0 +1,226 @@
+package com.techup.service;
+
+import com.techup.dto.ResourceVersion;
+import com.techup.dto.TripPageResponse;
+import com.techup.dto.TripRequest;
+import com.techup.dto.TripResponse;
+import com.techup.dto.UserTripsResponse;
+import com.techup.entity.Trip;
+import com.techup.entity.TripTagCount;
+import com.techup.entity.User;
+import com.techup.repository.TripRepository;
+import com.techup.repository.TripTagCountRepository;
+import com.techup.repository.UserRepository;
+import com.techup.search.PostgresTripSearchEngine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * นับจำนวน SQL statement ที่แต่ละ read endpoint ยิงไปที่ฐานข้อมูล
+ * ถ้ามีใครกลับไปโหลด author แบบ lazy ทีละทริป (N+1) test นี้จะ fail
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Import({TripService.class, TripBulkService.class, TripExportService.class, TripTagCountService.class,
+         TripListVersion.class, PostgresTripSearchEngine.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class TripQueryCountTest {
+
+    private static final int TRIP_COUNT = 5;
+    // ส่วนหนึ่งของ cache key เท่านั้น (test นี้นับ statement ของการอ่านจริง)
+    private static final ResourceVersion VERSION = ResourceVersion.ofCollection("trips", 0, null);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @MockitoBean
+    private StorageDeletionQueue storageDeletionQueue;
+
+    @MockitoBean
+    private TripPhotoUploader photoUploader;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private TripBulkService tripBulkService;
+
+    @Autowired
+    private TripExportService tripExportService;
+
+    @Autowired
+    private TripRepository tripRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TripTagCountService tagCountService;
+
+    @Autowired
+    private TripTagCountRepository tagCountRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstTripId;
+    private Long firstAuthorId;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < TRIP_COUNT; i++) {
+            // author คนละคนต่อทริป เพื่อให้ N+1 แสดงผลเป็นจำนวน query ที่เพิ่มขึ้น
+            User author = userRepository.save(User.builder()
+                .email("author" + i + "@example.com")
+                .passwordHash("hash")
+                .displayName("Author " + i)
+                .build());
+            Trip trip = tripRepository.save(Trip.builder()
+                .title("เชียงใหม่ trip " + i)
+                .description("ทะเลหมอก " + i)
+                .tags(i % 2 == 0 ? new String[]{"north", "mountain"} : new String[]{"north"})
+                .latitude(18.79 + i * 0.01)
+                .longitude(98.98)
+                .author(author)
+                .build());
+            if (firstTripId == null) {
+                firstTripId = trip.getId();
+                firstAuthorId = author.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllTripsUsesOneStatement() {
+        assertThat(tripService.getAllTrips(VERSION)).hasSize(TRIP_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void feedPagesUseOneStatementEach() {
+        TripPageResponse first = tripService.getFeed(VERSION, null, 2);
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        TripPageResponse second = tripService.getFeed(VERSION, first.getNextCursor(), 2);
+        assertThat(second.getItems()).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void getTripByIdUsesOneStatement() {
+        assertThat(tripService.getTripById(VERSION, firstTripId).getAuthorId()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void userTripsReadTheCounterAndOnePage() {
+        UserTripsResponse trips = tripService.getUserTrips(VERSION, firstAuthorId, null, 20);
+        assertThat(trips.getItems()).extracting(TripResponse::getId).containsExactly(firstTripId);
+        // users.trip_count + หน้าเดียวของ trips (ไม่มี COUNT(*))
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void bulkCreateBatchesInserts() {
+        List<TripRequest> requests = IntStream.range(0, 120).mapToObj(i -> {
+            TripRequest request = new TripRequest();
+            request.setTitle("bulk " + i);
+            request.setTags(List.of("bulk"));
+            return request;
+        }).toList();
+
+        assertThat(tripBulkService.upsert(requests, firstAuthorId).getCreated()).isEqualTo(120);
+        entityManager.flush();
+        // INSERT ถูกรวมเป็น batch ต่อ chunk และ id จองจาก sequence ครั้งละ 50 ไม่ใช่ 120 statement
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(30);
+    }
+
+    @Test
+    void exportStreamsEveryTripAfterTheGivenIdInOneStatement() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(tripExportService.exportNdjson(firstTripId, out)).isEqualTo(TRIP_COUNT - 1);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(TRIP_COUNT - 1)
+            .allMatch(line -> line.startsWith("{\"id\":"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findNearbyUsesOneStatementAndSortsByDistance() {
+        List<TripResponse> nearby = tripService.findNearby(VERSION, 18.79, 98.98, 5, 0, 3);
+        assertThat(nearby).extracting(TripResponse::getTitle)
+            .containsExactly("เชียงใหม่ trip 0", "เชียงใหม่ trip 1", "เชียงใหม่ trip 2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByTagsUsesOneStatement() {
+        assertThat(tripService.findByTags(VERSION, List.of("north", "mountain"), true, 0, 20)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(tripService.findByTags(VERSION, List.of("mountain", "sea"), false, 0, 20)).hasSize(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchByKeywordUsesOneStatement() {
+        assertThat(tripService.searchByKeyword(VERSION, "เชียงใหม่", 0, 20)).hasSize(TRIP_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    // ลด tag ที่ไม่มีแถวไม่สร้างแถวค่าลบ และแถวที่นับถึง 0 ถูกลบ
+    @Test
+    void tagCountsNeverGoNegative() {
+        tagCountService.applyDeltas(Map.of("ghost", -1L));
+        assertThat(tagCountRepository.findById("ghost")).isEmpty();
+
+        tagCountService.applyDeltas(Map.of("sea", 1L));
+        tagCountService.applyDeltas(Map.of("sea", -2L));
+        assertThat(tagCountRepository.findById("sea")).isEmpty();
+
+        tagCountService.applyDeltas(Map.of("sea", 1L));
+        entityManager.clear();
+        assertThat(tagCountRepository.findById("sea")).get()
+            .extracting(TripTagCount::getTripCount).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,144 @@
+package com.techup.service;
+
+import com.techup.config.CacheConfig;
+import com.techup.dto.ResourceVersion;
+import com.techup.dto.TripRequest;
+import com.techup.dto.TripResponse;
+import com.techup.entity.Trip;
+import com.techup.entity.User;
+import com.techup.repository.TripRepository;
+import com.techup.repository.UserRepository;
+import com.techup.search.TripSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * GET ซ้ำต้องตอบจาก cache, การเขียนเปลี่ยน version ของรายการ (ไม่ต้องล้าง cache)
+ * และ body ที่ cache ไว้ภายใต้ version เก่าต้องไม่ถูกใช้กับ version ใหม่
+ */
+@SpringBootTest(classes = {CacheConfig.class, TripService.class})
+class TripServiceCacheTest {
+
+    private static final Long TRIP_ID = 7L;
+    private static final Long AUTHOR_ID = 3L;
+    private static final ResourceVersion TRIP_V1 = ResourceVersion.ofTrip(TRIP_ID, LocalDateTime.of(2025, 1, 1, 0, 0));
+    private static final ResourceVersion TRIP_V2 = ResourceVersion.ofTrip(TRIP_ID, LocalDateTime.of(2025, 1, 2, 0, 0));
+    private static final ResourceVersion LIST_V1 = ResourceVersion.ofCollection("trips", 1, null);
+    private static final ResourceVersion LIST_V2 = ResourceVersion.ofCollection("trips", 2, null);
+
+    @MockitoBean
+    private TripRepository tripRepository;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    @MockitoBean
+    private StorageDeletionQueue storageDeletionQueue;
+
+    @MockitoBean
+    private TripSearchEngine searchEngine;
+
+    @MockitoBean
+    private TripTagCountService tagCountService;
+
+    @MockitoBean
+    private TripPhotoUploader photoUploader;
+
+    @MockitoBean
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private TripListVersion tripListVersion;
+
+    @MockitoBean
+    private SupabaseStorageService storageService;
+
+    @Autowired
+    private TripService tripService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // context (และ cache) ถูกใช้ร่วมกันทุก test
+    @BeforeEach
+    void clearCaches() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void detailIsServedFromCacheUntilTheTripChanges() {
+        when(tripRepository.findResponseById(TRIP_ID))
+            .thenReturn(Optional.of(TripResponse.builder().id(TRIP_ID).title("old").build()));
+
+        tripService.getTripById(TRIP_V1, TRIP_ID);
+        tripService.getTripById(TRIP_V1, TRIP_ID);
+        verify(tripRepository, times(1)).findResponseById(TRIP_ID);
+
+        // แก้ทริปแล้ว updated_at เปลี่ยน: ETag ใหม่เป็น key ใหม่
+        tripService.getTripById(TRIP_V2, TRIP_ID);
+        verify(tripRepository, times(2)).findResponseById(TRIP_ID);
+    }
+
+    @Test
+    void listsAreReloadedUnderTheVersionAfterAWrite() {
+        when(tripRepository.findFeedFirstPage(any())).thenReturn(List.of());
+        when(userRepository.findById(AUTHOR_ID)).thenReturn(Optional.of(author()));
+        when(tripRepository.save(any(Trip.class))).thenReturn(trip());
+
+        tripService.getFeed(LIST_V1, null, 10);
+        tripService.getFeed(LIST_V1, null, 10);
+        verify(tripRepository, times(1)).findFeedFirstPage(any());
+
+        TripRequest request = new TripRequest();
+        request.setTitle("new trip");
+        request.setAuthorId(AUTHOR_ID);
+        tripService.createTrip(request);
+        verify(tripListVersion).bumpAfterCommit();
+
+        tripService.getFeed(LIST_V2, null, 10);
+        verify(tripRepository, times(2)).findFeedFirstPage(any());
+    }
+
+    @Test
+    void bodyLoadedBeforeACommitIsNotServedForTheNewVersion() {
+        TripResponse before = TripResponse.builder().id(TRIP_ID).title("old").build();
+        TripResponse after = TripResponse.builder().id(TRIP_ID).title("new").build();
+        when(tripRepository.findFeedFirstPage(any())).thenReturn(List.of(before), List.of(after));
+
+        // request ที่อ่านก่อน commit แต่ใส่ cache หลัง evict (ETag ของมันคือ version เก่า)
+        tripService.getFeed(LIST_V1, null, 10);
+
+        // request ถัดไปได้ version ใหม่ ต้องไม่ได้ body เก่าที่ค้างอยู่
+        assertThat(tripService.getFeed(LIST_V2, null, 10).getItems()).containsExactly(after);
+        verify(tripRepository, times(2)).findFeedFirstPage(any());
+    }
+
+    private static User author() {
+        return User.builder().id(AUTHOR_ID).email("author@example.com").build();
+    }
+
+    private static Trip trip() {
+        return Trip.builder()
+            .id(TRIP_ID)
+            .title("old")
+            .author(author())
+            .createdAt(LocalDateTime.now())
+            .updatedAt(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.techup.service;
+
+import com.techup.dto.TripRequest;
+import com.techup.repository.TripRepository;
+import com.techup.repository.UserRepository;
+import com.techup.search.TripSearchEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TripServiceCreateTest {
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final TripService tripService = new TripService(tripRepository, mock(UserRepository.class),
+        mock(StorageDeletionQueue.class), mock(TripSearchEngine.class), mock(TripTagCountService.class),
+        mock(TripPhotoUploader.class), mock(TransactionTemplate.class), mock(TripListVersion.class),
+        mock(SupabaseStorageService.class));
+
+    // "photos":[null] ต้องเป็น 400 ไม่ใช่ NPE ตอนแปลง key
+    @Test
+    void nullOrBlankPhotosAreRejected() {
+        assertRejected(Arrays.asList("trips/1/a.jpg", null));
+        assertRejected(List.of(""));
+        assertRejected(List.of("  "));
+
+        verify(tripRepository, never()).save(any());
+    }
+
+    private void assertRejected(List<String> photos) {
+        TripRequest request = new TripRequest();
+        request.setTitle("trip");
+        request.setAuthorId(1L);
+        request.setPhotos(photos);
+        assertThatThrownBy(() -> tripService.createTrip(request))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,59 @@
+package com.techup.service;
+
+import com.techup.dto.ResourceVersion;
+import com.techup.repository.TripRepository;
+import com.techup.repository.UserRepository;
+import com.techup.search.TripSearchEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TripServiceNearbyTest {
+
+    private static final ResourceVersion VERSION = new ResourceVersion("\"trips-1\"", 0L);
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final TripService tripService = new TripService(tripRepository, mock(UserRepository.class),
+        mock(StorageDeletionQueue.class), mock(TripSearchEngine.class), mock(TripTagCountService.class),
+        mock(TripPhotoUploader.class), mock(TransactionTemplate.class), mock(TripListVersion.class),
+        mock(SupabaseStorageService.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tripService, "maxNearbyRadiusKm", 100.0);
+    }
+
+    // NaN/Infinity ผ่านการเปรียบเทียบช่วง ต้องถูกปฏิเสธก่อนถึง query
+    @Test
+    void nonFiniteCoordinatesAreRejected() {
+        assertRejected(Double.NaN, 100.5, 5);
+        assertRejected(13.7, Double.NaN, 5);
+        assertRejected(Double.POSITIVE_INFINITY, 100.5, 5);
+        assertRejected(13.7, Double.NEGATIVE_INFINITY, 5);
+
+        verify(tripRepository, never()).findNearby(anyDouble(), anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+    }
+
+    @Test
+    void nonFiniteRadiusIsRejected() {
+        assertRejected(13.7, 100.5, Double.NaN);
+        assertRejected(13.7, 100.5, Double.POSITIVE_INFINITY);
+
+        verify(tripRepository, never()).findNearby(anyDouble(), anyDouble(), anyDouble(),
+            anyDouble(), anyDouble(), anyDouble(), anyDouble(), any());
+    }
+
+    private void assertRejected(double latitude, double longitude, double radiusKm) {
+        assertThatThrownBy(() -> tripService.findNearby(VERSION, latitude, longitude, radiusKm, 0, null))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,44 @@
+package com.techup.service;
+
+import com.techup.repository.TripTagCountRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TripTagCountServiceTest {
+
+    private final TripTagCountRepository tagCountRepository = mock(TripTagCountRepository.class);
+    private final TripTagCountService tagCountService = new TripTagCountService(tagCountRepository);
+
+    @Test
+    void positiveDeltasUpsert() {
+        tagCountService.applyDeltas(Map.of("sea", 2L));
+
+        verify(tagCountRepository).increment("sea", 2L);
+        verify(tagCountRepository, never()).decrement(anyString(), anyLong());
+    }
+
+    // การลดไม่ผ่าน upsert: tag ที่ไม่มีแถวต้องไม่ได้แถวค่าลบ
+    @Test
+    void negativeDeltasDecrementAndDropEmptyRows() {
+        tagCountService.applyDeltas(Map.of("sea", -3L));
+
+        verify(tagCountRepository).decrement("sea", 3L);
+        verify(tagCountRepository).deleteIfEmpty("sea");
+        verify(tagCountRepository, never()).increment(anyString(), anyLong());
+    }
+
+    @Test
+    void zeroDeltasAreSkipped() {
+        tagCountService.applyDeltas(Map.of("sea", 0L));
+
+        verify(tagCountRepository, never()).increment(anyString(), anyLong());
+        verify(tagCountRepository, never()).decrement(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,100 @@
+package com.techup.service;
+
+import com.techup.config.AuthProperties;
+import com.techup.dto.UserLoginRequest;
+import com.techup.dto.UserRequest;
+import com.techup.repository.UserRepository;
+import com.techup.security.JwtService;
+import com.techup.security.LoginRateLimiter;
+import com.techup.security.PasswordHasher;
+import com.techup.security.UnknownEmailCache;
+import com.techup.security.UserCredentials;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+    private static final String EMAIL = "bob@example.com";
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtService jwtService = mock(JwtService.class);
+    private final PasswordHasher passwordHasher = mock(PasswordHasher.class);
+    private final AuthProperties properties = new AuthProperties(
+        new AuthProperties.Password(10, 1, 1),
+        new AuthProperties.RateLimit(100, Duration.ofMinutes(15), 100, Duration.ofMinutes(1), 1000),
+        new AuthProperties.UnknownEmailCache(1000, Duration.ofMinutes(1)));
+    private final UserService userService = new UserService(userRepository, jwtService, passwordHasher,
+        new LoginRateLimiter(properties), new UnknownEmailCache(properties));
+
+    @Test
+    void registerIsOneInsertAndDuplicatesComeFromTheUniqueConstraint() {
+        when(passwordHasher.hash("secret")).thenReturn("hash");
+        when(userRepository.insertIfEmailAbsent(eq(EMAIL), eq("hash"), eq("Bob"), any()))
+            .thenReturn(Optional.of(5L), Optional.empty());
+        when(jwtService.generateToken(5L, EMAIL)).thenReturn("token");
+
+        assertThat(userService.register(request(), "10.0.0.1").getToken()).isEqualTo("token");
+        assertThatThrownBy(() -> userService.register(request(), "10.0.0.1"))
+            .hasMessage("Email already exists");
+        verify(userRepository, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void unknownEmailIsRememberedUntilItRegisters() {
+        when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(Optional.empty());
+
+        // ครั้งแรกที่ไม่พบยังไม่ถูกจำ ไม่พบซ้ำแล้วจึงตอบจาก cache
+        assertThatThrownBy(() -> userService.login(login("secret"), "10.0.0.1")).hasMessage("Email not found");
+        assertThatThrownBy(() -> userService.login(login("secret"), "10.0.0.1")).hasMessage("Email not found");
+        assertThatThrownBy(() -> userService.login(login("secret"), "10.0.0.1")).hasMessage("Email not found");
+        verify(userRepository, times(2)).findCredentialsByEmail(EMAIL);
+
+        when(passwordHasher.hash("secret")).thenReturn("hash");
+        when(userRepository.insertIfEmailAbsent(eq(EMAIL), eq("hash"), eq("Bob"), any())).thenReturn(Optional.of(5L));
+        userService.register(request(), "10.0.0.1");
+
+        assertThatThrownBy(() -> userService.login(login("secret"), "10.0.0.1")).hasMessage("Email not found");
+        verify(userRepository, times(3)).findCredentialsByEmail(EMAIL);
+    }
+
+    @Test
+    void loginRehashesAnOutdatedHash() {
+        when(userRepository.findCredentialsByEmail(EMAIL)).thenReturn(Optional.of(
+            new UserCredentials(5L, EMAIL, "old-hash", "Bob", OffsetDateTime.now())));
+        when(passwordHasher.matches("secret", "old-hash")).thenReturn(true);
+        when(passwordHasher.needsRehash("old-hash")).thenReturn(true);
+        when(passwordHasher.hash("secret")).thenReturn("new-hash");
+
+        assertThat(userService.login(login("secret"), "10.0.0.1").getId()).isEqualTo(5L);
+        verify(userRepository).updatePasswordHash(5L, "new-hash");
+    }
+
+    private static UserRequest request() {
+        UserRequest request = new UserRequest();
+        request.setEmail(EMAIL);
+        request.setPassword("secret");
+        request.setDisplayName("Bob");
+        return request;
+    }
+
+    private static UserLoginRequest login(String password) {
+        UserLoginRequest request = new UserLoginRequest();
+        request.setEmail(EMAIL);
+        request.setPassword(password);
+        return request;
+    }
+}